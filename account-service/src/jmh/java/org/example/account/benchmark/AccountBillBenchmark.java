@@ -0,0 +1,73 @@
+package org.example.account.benchmark;
+
+import org.example.account.AccountApplication;
+import org.example.account.entity.Account;
+import org.example.account.service.AccountService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Measure addBillToAccount latency for accounts which already have a different number of bills.
+ * Runs the service against in-memory H2, each added bill is removed again after the invocation.
+ * Run with {@code ./gradlew :account-service:jmh -Pjmh.includes=AccountBillBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountBillBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int bills;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private Long accountId;
+    private Long billId;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(AccountApplication.class,
+                "--spring.cloud.config.enabled=false",
+                "--eureka.client.enabled=false",
+                "--spring.rabbitmq.listener.simple.auto-startup=false",
+                "--spring.datasource.url=jdbc:h2:mem:account;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--server.port=0");
+        accountService = context.getBean(AccountService.class);
+
+        Account account = new Account();
+        account.setName("benchmark");
+        account.setEmail("benchmark@gmail.com");
+        account.setPhone("+79520009939");
+        account.setDateOfBirth(LocalDate.of(1999, 7, 9));
+        List<Long> accountBills = LongStream.rangeClosed(1, bills).boxed().toList();
+        account.setBills(accountBills);
+        accountId = accountService.createAccount(account);
+        billId = (long) bills;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Account addBillToAccount() {
+        return accountService.addBillToAccount(accountId, ++billId);
+    }
+
+    @TearDown(Level.Invocation)
+    public void removeAddedBill() {
+        accountService.removeBillFromAccount(accountId, billId);
+    }
+}
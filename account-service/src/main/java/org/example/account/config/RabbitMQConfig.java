@@ -0,0 +1,77 @@
+package org.example.account.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    public static final String FANOUT_EXCHANGE_ACCOUNT_CHANGED = "js.account.changed.exchange";
+    public static final String TOPIC_EXCHANGE_ACCOUNT = "js.account.exchange";
+    public static final String ROUTING_KEY_ACCOUNT_DELETED = "js.key.account.deleted";
+    public static final String TOPIC_EXCHANGE_BILL = "js.bill.exchange";
+    public static final String ROUTING_KEY_BILL_CREATED = "js.key.bill.created";
+    public static final String ROUTING_KEY_BILL_DELETED = "js.key.bill.deleted";
+    public static final String QUEUE_BILL_EVENTS = "js.account.bill.events";
+
+    @Bean
+    public FanoutExchange accountChangedExchange() {
+        return new FanoutExchange(FANOUT_EXCHANGE_ACCOUNT_CHANGED);
+    }
+
+    @Bean
+    public TopicExchange accountExchange() {
+        return new TopicExchange(TOPIC_EXCHANGE_ACCOUNT);
+    }
+
+    @Bean
+    public TopicExchange billExchange() {
+        return new TopicExchange(TOPIC_EXCHANGE_BILL);
+    }
+
+    /**
+     * Durable queue shared by all instances for both created and deleted bill events, every bill event is handled once.
+     * Only one consumer is active at a time, so events are handled in the order bill-service sent them.
+     */
+    @Bean
+    public Queue billEventsQueue() {
+        return QueueBuilder.durable(QUEUE_BILL_EVENTS)
+                .singleActiveConsumer()
+                .build();
+    }
+
+    @Bean
+    public Binding billCreatedBinding() {
+        return BindingBuilder
+                .bind(billEventsQueue())
+                .to(billExchange())
+                .with(ROUTING_KEY_BILL_CREATED);
+    }
+
+    @Bean
+    public Binding billDeletedBinding() {
+        return BindingBuilder
+                .bind(billEventsQueue())
+                .to(billExchange())
+                .with(ROUTING_KEY_BILL_DELETED);
+    }
+
+    /**
+     * Converter for RabbitMQ messages, incoming messages are read into listener parameter type.
+     */
+    @Bean
+    public MessageConverter messageConverter(ObjectMapper objectMapper) {
+        Jackson2JsonMessageConverter messageConverter = new Jackson2JsonMessageConverter(objectMapper);
+        messageConverter.setAlwaysConvertToInferredType(true);
+        return messageConverter;
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.account.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.account.controller.SingleFlightFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class SingleFlightConfig {
+
+    /**
+     * Concurrent identical reads of accounts share one execution, see {@link SingleFlightFilter}.
+     * Runs after the ETag filter, so every request is answered 304 or 200 by its own If-None-Match.
+     */
+    @Bean
+    public FilterRegistrationBean<SingleFlightFilter> singleFlightFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SingleFlightFilter> registration = new FilterRegistrationBean<>(new SingleFlightFilter(meterRegistry));
+        registration.addUrlPatterns("/accounts/*");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.util.List;
 
 @RestController
 @RequestMapping("/accounts")
@@ -46,6 +47,20 @@ public class AccountController {
         return mapper.mapToResponse(accountService.getAccountById(accountId));
     }
 
+    /**
+     * READ several accounts by ids in one call.
+     *
+     * @param accountIds account ids
+     * @return dto accounts, not existing accounts are skipped
+     */
+    @PostMapping("/batch")
+    public List<AccountResponseDTO> getAccounts(@RequestBody List<Long> accountIds) {
+        return accountService.getAccountsByIds(accountIds)
+                .stream()
+                .map(mapper::mapToResponse)
+                .toList();
+    }
+
     /**
      * UPDATE account by id and request.
      *
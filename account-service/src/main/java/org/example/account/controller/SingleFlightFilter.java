@@ -0,0 +1,101 @@
+package org.example.account.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lets concurrent GET requests for the same URL share one execution (single flight).
+ * <p>
+ * The first request is handled, requests for the same URL arriving while it is in flight wait for it
+ * and get a copy of its status, headers and body. A request arriving after the response is handled again,
+ * so a read never returns a response older than the reads in flight. If the first request fails,
+ * the waiting requests are handled each on its own.
+ */
+public class SingleFlightFilter extends OncePerRequestFilter {
+
+    private final Map<String, CompletableFuture<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter collapsed;
+
+    public SingleFlightFilter(MeterRegistry meterRegistry) {
+        this.executed = meterRegistry.counter("single.flight.server.requests", "result", "executed");
+        this.collapsed = meterRegistry.counter("single.flight.server.requests", "result", "collapsed");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!"GET".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String url = request.getQueryString() == null ? request.getRequestURI() : request.getRequestURI() + "?" + request.getQueryString();
+        CompletableFuture<SharedResponse> call = new CompletableFuture<>();
+        CompletableFuture<SharedResponse> leader = inFlight.putIfAbsent(url, call);
+        if (leader != null) {
+            SharedResponse shared = leader.join();
+            if (shared != null) {
+                collapsed.increment();
+                shared.writeTo(response);
+                return;
+            }
+            executed.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+        executed.increment();
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            call.complete(isAsyncStarted(request) ? null : new SharedResponse(responseWrapper));
+        } finally {
+            inFlight.remove(url, call);
+            call.complete(null);
+        }
+        responseWrapper.copyBodyToResponse();
+    }
+
+    private static final class SharedResponse {
+
+        private final int status;
+        private final Map<String, List<String>> headers = new LinkedHashMap<>();
+        private final String contentType;
+        private final byte[] body;
+
+        private SharedResponse(ContentCachingResponseWrapper response) {
+            this.status = response.getStatus();
+            for (String name : response.getHeaderNames()) {
+                if (!HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name) && !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                    headers.put(name, new ArrayList<>(response.getHeaders(name)));
+                }
+            }
+            this.contentType = response.getContentType();
+            this.body = response.getContentAsByteArray();
+        }
+
+        void writeTo(HttpServletResponse response) throws IOException {
+            response.setStatus(status);
+            headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+            if (contentType != null) {
+                response.setContentType(contentType);
+            }
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+}
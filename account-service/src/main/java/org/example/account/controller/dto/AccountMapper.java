@@ -1,26 +1,21 @@
 package org.example.account.controller.dto;
 
 import org.example.account.entity.Account;
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Service;
+import org.mapstruct.Builder;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
 
-@Service
-public class AccountMapper {
+/**
+ * Account DTO mapping, generated at compile time by MapStruct.
+ */
+@Mapper(componentModel = "spring", builder = @Builder(disableBuilder = true), unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface AccountMapper {
 
-    private final ModelMapper mapper;
+    @Mapping(target = "accountId", ignore = true)
+    @Mapping(target = "creationDate", ignore = true)
+    Account mapFromRequest(AccountRequestDTO accountRequestDTO);
 
-    @Autowired
-    public AccountMapper(ModelMapper mapper) {
-        this.mapper = mapper;
-    }
-
-    public Account mapFromRequest(AccountRequestDTO accountRequestDTO) {
-        return mapper.map(accountRequestDTO, Account.class);
-    }
-
-    public AccountResponseDTO mapToResponse(Account account) {
-        return mapper.map(account, AccountResponseDTO.class);
-    }
+    AccountResponseDTO mapToResponse(Account account);
 
 }
@@ -28,7 +28,7 @@ import java.util.List;
 public class Account {
 
     @Id
-    @SequenceGenerator(name = "account_sequence", sequenceName = "account_sequence", allocationSize = 1)
+    @SequenceGenerator(name = "account_sequence", sequenceName = "account_sequence", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_sequence")
     @Column(name = "id", updatable = false)
     private Long accountId;
@@ -49,7 +49,10 @@ public class Account {
     @Column(name = "creationDate", nullable = false, columnDefinition = "DATE")
     private OffsetDateTime creationDate;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    /**
+     * Bill ids, stored in {@link AccountBill} and loaded by the service only when they are needed.
+     */
+    @Transient
     private List<Long> bills;
 
     public void addBill(Long billId) {
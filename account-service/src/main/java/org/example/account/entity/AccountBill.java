@@ -0,0 +1,39 @@
+package org.example.account.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * Link between account and bill, one row per bill so adding or removing a bill does not rewrite other links.
+ */
+@Entity(name = "AccountBill")
+@Table(
+        name = "account_bill",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "account_bill_account_id_bill_id_unique", columnNames = {"account_id", "bill_id"})
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class AccountBill {
+
+    @Id
+    @SequenceGenerator(name = "account_bill_sequence", sequenceName = "account_bill_sequence", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_bill_sequence")
+    @Column(name = "id", updatable = false)
+    private Long accountBillId;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "bill_id", nullable = false)
+    private Long billId;
+
+    public AccountBill(Long accountId, Long billId) {
+        this.accountId = accountId;
+        this.billId = billId;
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.account.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * Tombstone of a bill deleted in bill-service, so a bill created event delivered after the bill deleted event
+ * does not link the deleted bill to the account again.
+ */
+@Entity(name = "DeletedBill")
+@Table(name = "deleted_bill")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class DeletedBill {
+
+    @Id
+    @Column(name = "bill_id", updatable = false)
+    private Long billId;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+}
@@ -0,0 +1,30 @@
+package org.example.account.repository;
+
+import org.example.account.entity.AccountBill;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface AccountBillRepository extends CrudRepository<AccountBill, Long> {
+
+    @Query("SELECT ab.billId FROM AccountBill AS ab WHERE ab.accountId = :accountId ORDER BY ab.accountBillId")
+    List<Long> findBillIdsByAccountId(@Param("accountId") Long accountId);
+
+    @Query("SELECT ab FROM AccountBill AS ab WHERE ab.accountId IN :accountIds ORDER BY ab.accountBillId")
+    List<AccountBill> findByAccountIds(@Param("accountIds") Collection<Long> accountIds);
+
+    boolean existsByAccountIdAndBillId(Long accountId, Long billId);
+
+    @Modifying
+    @Query("DELETE FROM AccountBill AS ab WHERE ab.accountId = :accountId AND ab.billId = :billId")
+    int deleteByAccountIdAndBillId(@Param("accountId") Long accountId, @Param("billId") Long billId);
+
+    @Modifying
+    @Query("DELETE FROM AccountBill AS ab WHERE ab.accountId = :accountId")
+    int deleteByAccountId(@Param("accountId") Long accountId);
+
+}
@@ -3,6 +3,7 @@ package org.example.account.repository;
 import org.example.account.entity.Account;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface AccountRepository extends CrudRepository<Account, Long> {
@@ -11,4 +12,19 @@ public interface AccountRepository extends CrudRepository<Account, Long> {
 
     Optional<Account> findByPhone(String phone);
 
+    /**
+     * Find accounts which already use the email or the phone number, with one query.
+     */
+    List<Account> findByEmailOrPhone(String email, String phone);
+
+    /**
+     * Find account by id together with other accounts which already use the email or the phone number, with one query.
+     */
+    List<Account> findByAccountIdOrEmailOrPhone(Long accountId, String email, String phone);
+
+    /**
+     * Save account and flush it at once, so a unique constraint violation is thrown here and not at commit.
+     */
+    Account saveAndFlush(Account account);
+
 }
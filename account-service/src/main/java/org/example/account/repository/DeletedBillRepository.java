@@ -0,0 +1,8 @@
+package org.example.account.repository;
+
+import org.example.account.entity.DeletedBill;
+import org.springframework.data.repository.CrudRepository;
+
+public interface DeletedBillRepository extends CrudRepository<DeletedBill, Long> {
+
+}
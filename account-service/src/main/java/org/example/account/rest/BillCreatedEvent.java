@@ -0,0 +1,13 @@
+package org.example.account.rest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BillCreatedEvent {
+    private Long billId;
+    private Long accountId;
+}
@@ -0,0 +1,15 @@
+package org.example.account.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Event about updated or deleted account, other services drop cached account data on it.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountChangedEvent {
+    private Long accountId;
+}
@@ -0,0 +1,15 @@
+package org.example.account.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Event about deleted account, bill-service deletes account bills on it.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountDeletedEvent {
+    private Long accountId;
+}
@@ -0,0 +1,29 @@
+package org.example.account.service;
+
+import org.example.account.config.RabbitMQConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class AccountEventPublisher {
+
+    private final OutboxService outboxService;
+
+    @Autowired
+    public AccountEventPublisher(OutboxService outboxService) {
+        this.outboxService = outboxService;
+    }
+
+    /**
+     * Save account changed event for RabbitMQ in the changing transaction just before commit, the message is sent by
+     * {@link OutboxRelay}, so no broker call is made on the request thread.
+     *
+     * @param event account changed event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onAccountChanged(AccountChangedEvent event) {
+        outboxService.saveMessage(RabbitMQConfig.FANOUT_EXCHANGE_ACCOUNT_CHANGED, "", event);
+    }
+}
@@ -3,10 +3,14 @@ package org.example.account.service;
 import org.example.account.entity.Account;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 public interface AccountService {
 
     Account getAccountById(Long accountId);
 
+    List<Account> getAccountsByIds(List<Long> accountIds);
+
     Long createAccount(Account account);
 
     Account updateAccount(Long accountId, Account newAccount);
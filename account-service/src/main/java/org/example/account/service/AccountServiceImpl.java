@@ -1,17 +1,23 @@
 package org.example.account.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.account.config.RabbitMQConfig;
 import org.example.account.entity.Account;
+import org.example.account.entity.AccountBill;
+import org.example.account.entity.DeletedBill;
 import org.example.account.utils.exception.AccountAlreadyExistException;
 import org.example.account.utils.exception.AccountNotFoundException;
+import org.example.account.repository.AccountBillRepository;
 import org.example.account.repository.AccountRepository;
-import org.example.account.rest.BillServiceClient;
+import org.example.account.repository.DeletedBillRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
-import java.util.Optional;
+import java.util.*;
 
 import static java.lang.String.format;
 
@@ -20,19 +26,32 @@ import static java.lang.String.format;
 public class AccountServiceImpl implements AccountService {
 
     private final AccountRepository accountRepository;
-    private final BillServiceClient billServiceClient;
+    private final AccountBillRepository accountBillRepository;
+    private final DeletedBillRepository deletedBillRepository;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher applicationEventPublisher;
     private static final String ACCOUNT_NOT_FOUND_BY_ID = "Account with id %d is not found";
     private static final String ACCOUNT_ALREADY_EXIST_BY_EMAIL = "Account with email %s is already exist";
     private static final String ACCOUNT_ALREADY_EXIST_BY_PHONE = "Account with phone number %s is already exist";
+    private static final String ACCOUNT_PHONE_UNIQUE = "account_phone_unique";
 
     @Autowired
-    public AccountServiceImpl(AccountRepository accountRepository, BillServiceClient billServiceClient) {
+    public AccountServiceImpl(
+            AccountRepository accountRepository,
+            AccountBillRepository accountBillRepository,
+            DeletedBillRepository deletedBillRepository,
+            OutboxService outboxService,
+            ApplicationEventPublisher applicationEventPublisher
+    ) {
         this.accountRepository = accountRepository;
-        this.billServiceClient = billServiceClient;
+        this.accountBillRepository = accountBillRepository;
+        this.deletedBillRepository = deletedBillRepository;
+        this.outboxService = outboxService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
-     * Get account by id and
+     * Get account by id with its bill ids.
      *
      * @param accountId account id
      * @return account
@@ -40,63 +59,87 @@ public class AccountServiceImpl implements AccountService {
      */
     @Override
     public Account getAccountById(Long accountId) {
-        return accountRepository.findById(accountId)
-                .orElseThrow(
-                        () -> new AccountNotFoundException(format(ACCOUNT_NOT_FOUND_BY_ID, accountId))
-                );
+        Account account = findAccountById(accountId);
+        account.setBills(accountBillRepository.findBillIdsByAccountId(accountId));
+        return account;
     }
 
     /**
-     * Create new account and check that account does not exist by email and phone.
+     * Get several accounts by ids with one query, ids of not existing accounts are skipped.
+     *
+     * @param accountIds account ids
+     * @return accounts
+     */
+    @Override
+    public List<Account> getAccountsByIds(List<Long> accountIds) {
+        List<Account> accounts = new ArrayList<>(accountIds.size());
+        accountRepository.findAllById(accountIds).forEach(accounts::add);
+        if (accounts.isEmpty())
+            return accounts;
+
+        // load bills of all accounts with one query
+        Map<Long, List<Long>> billsByAccountId = new HashMap<>();
+        for (AccountBill accountBill : accountBillRepository.findByAccountIds(accountIds))
+            billsByAccountId.computeIfAbsent(accountBill.getAccountId(), id -> new ArrayList<>()).add(accountBill.getBillId());
+        for (Account account : accounts)
+            account.setBills(billsByAccountId.getOrDefault(account.getAccountId(), new ArrayList<>()));
+        return accounts;
+    }
+
+    /**
+     * Create new account and check that account does not exist by email and phone with one query.
      *
      * @param account account to create
      * @return account id.
      */
     @Override
+    @Transactional
     public Long createAccount(Account account) {
-        if (accountRepository.findByEmail(account.getEmail()).isPresent()) // check that account does not exist by email
-            throw new AccountAlreadyExistException(String.format(ACCOUNT_ALREADY_EXIST_BY_EMAIL, account.getEmail()));
-
-        if (accountRepository.findByPhone(account.getPhone()).isPresent()) // check that account does not exist by phone number
-            throw new AccountAlreadyExistException(String.format(ACCOUNT_ALREADY_EXIST_BY_PHONE, account.getPhone()));
+        checkAccountDoesNotExist(null, account, accountRepository.findByEmailOrPhone(account.getEmail(), account.getPhone()));
 
         account.setCreationDate(OffsetDateTime.now());
-        Long accountId = accountRepository.save(account).getAccountId();
+        Long accountId = saveAccount(account).getAccountId();
+        if (account.getBills() != null)
+            accountBillRepository.saveAll(
+                    account.getBills().stream().distinct().map(billId -> new AccountBill(accountId, billId)).toList()
+            );
         log.info("Create account with id " + accountId + ", email " + account.getEmail() + ", phone number " + account.getPhone());
         return accountId;
     }
 
     /**
-     * Update account by id.
+     * Update account by id and notify other services that account is changed.
      *
      * @param accountId  account id
      * @param newAccount new account
      * @return updated account.
      */
     @Override
+    @Transactional
     public Account updateAccount(Long accountId, Account newAccount) {
-        Account account = getAccountById(accountId);
-
-        Optional<Account> optionalAccountByEmail = accountRepository.findByEmail(newAccount.getEmail());
-        if (optionalAccountByEmail.isPresent()) // check if account exist by email
-            if (!accountId.equals(optionalAccountByEmail.get().getAccountId())) // check that is not the same account
-                throw new AccountAlreadyExistException(String.format(ACCOUNT_ALREADY_EXIST_BY_EMAIL, account.getEmail()));
-
-        Optional<Account> optionalAccountByPhone = accountRepository.findByPhone(newAccount.getPhone());
-        if (optionalAccountByPhone.isPresent()) // check if account exist by phone number
-            if (!accountId.equals(optionalAccountByPhone.get().getAccountId())) // check that is not the same account
-                throw new AccountAlreadyExistException(String.format(ACCOUNT_ALREADY_EXIST_BY_PHONE, account.getPhone()));
+        // load the account and accounts with the same email or phone number with one query
+        List<Account> accounts = accountRepository.findByAccountIdOrEmailOrPhone(accountId, newAccount.getEmail(), newAccount.getPhone());
+        Account account = accounts.stream()
+                .filter(found -> accountId.equals(found.getAccountId()))
+                .findFirst()
+                .orElseThrow(
+                        () -> new AccountNotFoundException(format(ACCOUNT_NOT_FOUND_BY_ID, accountId))
+                );
+        checkAccountDoesNotExist(accountId, newAccount, accounts);
 
         account.setName(newAccount.getName());
         account.setEmail(newAccount.getEmail());
         account.setPhone(newAccount.getPhone());
-        account.setBills(newAccount.getBills());
+        Account updatedAccount = saveAccount(account);
+        updatedAccount.setBills(replaceBills(accountId, newAccount.getBills()));
+        applicationEventPublisher.publishEvent(new AccountChangedEvent(accountId));
         log.info("Update account with id " + accountId);
-        return accountRepository.save(account);
+        return updatedAccount;
     }
 
     /**
-     * Delete account by id and send request to bill-service to delete all account bills.
+     * Delete account by id, save account deleted event for bill-service to delete all account bills
+     * in the same transaction and notify other services.
      *
      * @param accountId account id
      * @return deleted account
@@ -104,43 +147,129 @@ public class AccountServiceImpl implements AccountService {
     @Override
     @Transactional
     public Account deleteAccount(Long accountId) {
-        // send request to delete all account bills
-        billServiceClient.deleteBillByAccountId(accountId);
-        // delete account
         Account deletedAccount = getAccountById(accountId);
+        accountBillRepository.deleteByAccountId(accountId);
         accountRepository.deleteById(accountId);
+        // bill-service deletes all account bills
+        outboxService.saveMessage(
+                RabbitMQConfig.TOPIC_EXCHANGE_ACCOUNT,
+                RabbitMQConfig.ROUTING_KEY_ACCOUNT_DELETED,
+                new AccountDeletedEvent(accountId)
+        );
+        applicationEventPublisher.publishEvent(new AccountChangedEvent(accountId));
         log.info("Delete account with id " + accountId);
         return deletedAccount;
     }
 
     /**
-     * Get request from bill-service when bill add to account.
+     * Add bill to account on bill created event from bill-service and notify other services that account is changed.
+     * Inserts one link row, bill which is already linked to the account is not added twice.
+     * Bill which is already deleted is not added, its created event came after the deleted event.
      *
      * @param accountId account id
      * @param billId    id of added bill
      * @return updated account
      */
     @Override
+    @Transactional
     public Account addBillToAccount(Long accountId, Long billId) {
-        Account account = getAccountById(accountId);
-        account.addBill(billId);
-        log.info("Add bill " + billId + " to account with id " + accountId);
-        return accountRepository.save(account);
+        Account account = findAccountById(accountId);
+        if (deletedBillRepository.existsById(billId)) {
+            log.warn("Skip bill " + billId + " of account with id " + accountId + ", bill is already deleted");
+        } else {
+            if (!accountBillRepository.existsByAccountIdAndBillId(accountId, billId))
+                accountBillRepository.save(new AccountBill(accountId, billId));
+            applicationEventPublisher.publishEvent(new AccountChangedEvent(accountId));
+            log.info("Add bill " + billId + " to account with id " + accountId);
+        }
+        account.setBills(accountBillRepository.findBillIdsByAccountId(accountId));
+        return account;
     }
 
     /**
-     * Get request from bill-service when bill remove from account.
+     * Remove bill from account on bill deleted event from bill-service and notify other services that account is changed.
+     * Keeps a tombstone of the bill, so a late created event of the bill is skipped.
      *
      * @param accountId account id
      * @param billId    id of removed bill
      * @return updated account
      */
     @Override
+    @Transactional
     public Account removeBillFromAccount(Long accountId, Long billId) {
-        Account account = getAccountById(accountId);
-        account.removeBill(billId);
+        Account account = findAccountById(accountId);
+        accountBillRepository.deleteByAccountIdAndBillId(accountId, billId);
+        if (!deletedBillRepository.existsById(billId))
+            deletedBillRepository.save(new DeletedBill(billId, accountId));
+        applicationEventPublisher.publishEvent(new AccountChangedEvent(accountId));
         log.info("Remove bill " + billId + " from account with id " + accountId);
-        return accountRepository.save(account);
+        account.setBills(accountBillRepository.findBillIdsByAccountId(accountId));
+        return account;
+    }
+
+    /**
+     * Check that email and phone number of the account are not used by other accounts.
+     *
+     * @param accountId id of the checked account, null for new account
+     * @param account   account with email and phone number to check
+     * @param found     accounts found by email or phone number
+     * @throws AccountAlreadyExistException if other account has the same email or phone number
+     */
+    private void checkAccountDoesNotExist(Long accountId, Account account, List<Account> found) {
+        for (Account other : found) // check that account does not exist by email
+            if (!Objects.equals(accountId, other.getAccountId()) && Objects.equals(account.getEmail(), other.getEmail()))
+                throw new AccountAlreadyExistException(String.format(ACCOUNT_ALREADY_EXIST_BY_EMAIL, account.getEmail()));
+
+        for (Account other : found) // check that account does not exist by phone number
+            if (!Objects.equals(accountId, other.getAccountId()) && Objects.equals(account.getPhone(), other.getPhone()))
+                throw new AccountAlreadyExistException(String.format(ACCOUNT_ALREADY_EXIST_BY_PHONE, account.getPhone()));
+    }
+
+    /**
+     * Save account, an account created concurrently with the same email or phone number passes the check
+     * before save and is rejected by the unique constraint.
+     */
+    private Account saveAccount(Account account) {
+        try {
+            return accountRepository.saveAndFlush(account);
+        } catch (DataIntegrityViolationException e) {
+            String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase();
+            if (message.contains(ACCOUNT_PHONE_UNIQUE))
+                throw new AccountAlreadyExistException(String.format(ACCOUNT_ALREADY_EXIST_BY_PHONE, account.getPhone()));
+            throw new AccountAlreadyExistException(String.format(ACCOUNT_ALREADY_EXIST_BY_EMAIL, account.getEmail()));
+        }
+    }
+
+    private Account findAccountById(Long accountId) {
+        return accountRepository.findById(accountId)
+                .orElseThrow(
+                        () -> new AccountNotFoundException(format(ACCOUNT_NOT_FOUND_BY_ID, accountId))
+                );
+    }
+
+    /**
+     * Make account bills equal to the given ones, only links which are changed are deleted or inserted.
+     *
+     * @param accountId account id
+     * @param billIds   new bill ids of the account, null means no bills
+     * @return bill ids of the account
+     */
+    private List<Long> replaceBills(Long accountId, List<Long> billIds) {
+        Set<Long> newBillIds = billIds == null ? new LinkedHashSet<>() : new LinkedHashSet<>(billIds);
+        List<Long> accountBillIds = new ArrayList<>();
+        for (Long billId : accountBillRepository.findBillIdsByAccountId(accountId)) {
+            if (newBillIds.remove(billId))
+                accountBillIds.add(billId);
+            else
+                accountBillRepository.deleteByAccountIdAndBillId(accountId, billId);
+        }
+
+        List<AccountBill> added = new ArrayList<>(newBillIds.size());
+        for (Long billId : newBillIds)
+            added.add(new AccountBill(accountId, billId));
+        accountBillRepository.saveAll(added);
+        accountBillIds.addAll(newBillIds);
+        return accountBillIds;
     }
 
 }
@@ -0,0 +1,68 @@
+package org.example.account.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.account.config.RabbitMQConfig;
+import org.example.account.rest.BillCreatedEvent;
+import org.example.account.rest.BillDeletedEvent;
+import org.example.account.utils.exception.AccountNotFoundException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Keep account bills in sync with bill-service. Both handlers are idempotent, so redelivered events change nothing.
+ * Created and deleted bill events come from one queue, so they are handled in order; a created event that still
+ * arrives after the deleted event of its bill is skipped by {@link AccountService#addBillToAccount}.
+ * Events for deleted accounts are skipped, account bills are deleted by bill-service on account deleted event.
+ */
+@Component
+@Slf4j
+public class BillEventListener {
+
+    private final AccountService accountService;
+
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public BillEventListener(AccountService accountService, ObjectMapper objectMapper) {
+        this.accountService = accountService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Dispatch bill event by its routing key.
+     *
+     * @param message created or deleted bill event
+     * @throws IOException if message body is not a bill event
+     */
+    @RabbitListener(queues = RabbitMQConfig.QUEUE_BILL_EVENTS)
+    public void onBillEvent(Message message) throws IOException {
+        String routingKey = message.getMessageProperties().getReceivedRoutingKey();
+        if (RabbitMQConfig.ROUTING_KEY_BILL_CREATED.equals(routingKey))
+            onBillCreated(objectMapper.readValue(message.getBody(), BillCreatedEvent.class));
+        else if (RabbitMQConfig.ROUTING_KEY_BILL_DELETED.equals(routingKey))
+            onBillDeleted(objectMapper.readValue(message.getBody(), BillDeletedEvent.class));
+        else
+            log.warn("Skip bill event with unknown routing key " + routingKey);
+    }
+
+    public void onBillCreated(BillCreatedEvent event) {
+        try {
+            accountService.addBillToAccount(event.getAccountId(), event.getBillId());
+        } catch (AccountNotFoundException e) {
+            log.warn("Skip created bill with id " + event.getBillId() + ", account with id " + event.getAccountId() + " is not found");
+        }
+    }
+
+    public void onBillDeleted(BillDeletedEvent event) {
+        try {
+            accountService.removeBillFromAccount(event.getAccountId(), event.getBillId());
+        } catch (AccountNotFoundException e) {
+            log.warn("Skip deleted bill with id " + event.getBillId() + ", account with id " + event.getAccountId() + " is not found");
+        }
+    }
+}
@@ -0,0 +1,36 @@
+CREATE SEQUENCE account_sequence START 1 INCREMENT 50;
+
+CREATE TABLE account
+(
+    id            BIGINT NOT NULL PRIMARY KEY,
+    name          TEXT   NOT NULL,
+    email         TEXT   NOT NULL,
+    phone         TEXT   NOT NULL,
+    date_of_birth DATE   NOT NULL,
+    creation_date DATE   NOT NULL,
+    CONSTRAINT account_email_unique UNIQUE (email),
+    CONSTRAINT account_phone_unique UNIQUE (phone)
+);
+
+CREATE SEQUENCE account_bill_sequence START 1 INCREMENT 50;
+
+-- the unique constraint also serves the lookups of bill ids by account id
+CREATE TABLE account_bill
+(
+    id         BIGINT NOT NULL PRIMARY KEY,
+    account_id BIGINT NOT NULL,
+    bill_id    BIGINT NOT NULL,
+    CONSTRAINT account_bill_account_id_bill_id_unique UNIQUE (account_id, bill_id)
+);
+
+CREATE SEQUENCE outbox_message_sequence START 1 INCREMENT 50;
+
+CREATE TABLE outbox_message
+(
+    id            BIGINT       NOT NULL PRIMARY KEY,
+    exchange      VARCHAR(255) NOT NULL,
+    routing_key   VARCHAR(255) NOT NULL,
+    content_type  VARCHAR(255) NOT NULL,
+    payload       BYTEA        NOT NULL,
+    creation_date TIMESTAMP    NOT NULL
+);
@@ -0,0 +1,6 @@
+-- tombstones of deleted bills, a late bill created event must not link a deleted bill again
+CREATE TABLE deleted_bill
+(
+    bill_id    BIGINT NOT NULL PRIMARY KEY,
+    account_id BIGINT NOT NULL
+);
@@ -10,19 +10,22 @@ import org.example.account.controller.dto.AccountRequestDTO;
 import org.example.account.controller.dto.AccountResponseDTO;
 import org.example.account.entity.Account;
 import org.example.account.repository.AccountRepository;
-import org.example.account.rest.BillServiceClient;
 import org.example.account.service.AccountService;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -54,8 +57,11 @@ class AccountControllerTest {
     @Autowired
     private WebApplicationContext context;
 
+    @Autowired
+    private FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter;
+
     @MockBean
-    private BillServiceClient billServiceClient;
+    private RabbitTemplate rabbitTemplate;
 
     @BeforeEach
     void setUp() {
@@ -189,6 +195,28 @@ class AccountControllerTest {
         perform.andExpect(status().isOk()).andReturn();
     }
 
+    @Test
+    @Order(7)
+    void itShouldGetAccountWithEtag_andAnswerNotModified_whenEtagMatches() throws Exception {
+        // given
+        MockMvc etagMockMvc = webAppContextSetup(context)
+                .addFilter(etagFilter.getFilter(), etagFilter.getUrlPatterns().toArray(String[]::new))
+                .build();
+        String etag = etagMockMvc.perform(get("/accounts/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when
+        ResultActions perform = etagMockMvc
+                .perform(get("/accounts/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        assertThat(etag).isNotBlank();
+        perform.andExpect(status().isNotModified());
+    }
+
     @Test
     @Order(8)
     void itShouldNotUpdateAccount_whenAccountDoesNotExistById() throws Exception {
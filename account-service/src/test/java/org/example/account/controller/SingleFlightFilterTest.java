@@ -0,0 +1,166 @@
+package org.example.account.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SingleFlightFilterTest {
+
+    private static final int CONCURRENT_REQUESTS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlightFilter filter = new SingleFlightFilter(meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2 * CONCURRENT_REQUESTS);
+    private final AtomicInteger executions = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void itShouldExecuteOnce_whenSameAccountIsReadConcurrently() throws Exception {
+        // given
+        FilterChain chain = slowChain(false);
+
+        // when
+        List<Future<MockHttpServletResponse>> responses = submit("GET", "/accounts/1", chain);
+        awaitCount("collapsed", CONCURRENT_REQUESTS - 1);
+        release.countDown();
+
+        // then
+        for (Future<MockHttpServletResponse> future : responses) {
+            MockHttpServletResponse response = future.get(5, TimeUnit.SECONDS);
+            assertEquals(200, response.getStatus());
+            assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+            assertEquals("1", response.getHeader("X-Account-Version"));
+            assertEquals("{\"accountId\":1}", response.getContentAsString());
+        }
+        assertEquals(1, executions.get());
+        assertEquals(1, count("executed"));
+        assertEquals(CONCURRENT_REQUESTS - 1, count("collapsed"));
+    }
+
+    @Test
+    void itShouldExecuteEveryRequest_whenRequestIsNotGet() throws Exception {
+        // given
+        FilterChain chain = slowChain(false);
+        release.countDown();
+
+        // when
+        List<Future<MockHttpServletResponse>> responses = submit("PUT", "/accounts/1", chain);
+
+        // then
+        for (Future<MockHttpServletResponse> future : responses) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(CONCURRENT_REQUESTS, executions.get());
+        assertEquals(0, count("collapsed"));
+    }
+
+    @Test
+    void itShouldExecuteEachUrl_whenDifferentAccountsAreReadConcurrently() throws Exception {
+        // given
+        FilterChain chain = slowChain(false);
+
+        // when
+        List<Future<MockHttpServletResponse>> responses = new ArrayList<>(submit("GET", "/accounts/1", chain));
+        responses.addAll(submit("GET", "/accounts/1?fields=bills", chain));
+        awaitCount("collapsed", 2 * (CONCURRENT_REQUESTS - 1));
+        release.countDown();
+
+        // then
+        for (Future<MockHttpServletResponse> future : responses) {
+            assertEquals(200, future.get(5, TimeUnit.SECONDS).getStatus());
+        }
+        assertEquals(2, executions.get());
+        assertEquals(2, count("executed"));
+    }
+
+    @Test
+    void itShouldExecuteWaitingRequests_whenFirstRequestFails() throws Exception {
+        // given
+        FilterChain chain = slowChain(true);
+
+        // when
+        List<Future<MockHttpServletResponse>> responses = submit("GET", "/accounts/1", chain);
+        awaitCount("executed", 1);
+        // let the other requests start waiting for the first one
+        Thread.sleep(100);
+        release.countDown();
+
+        // then
+        int failed = 0;
+        for (Future<MockHttpServletResponse> future : responses) {
+            try {
+                assertEquals("{\"accountId\":1}", future.get(5, TimeUnit.SECONDS).getContentAsString());
+            } catch (ExecutionException e) {
+                failed++;
+            }
+        }
+        assertEquals(1, failed);
+        assertEquals(0, count("collapsed"));
+    }
+
+    /**
+     * @return chain answering after the test releases it, the first execution fails if asked to
+     */
+    private FilterChain slowChain(boolean firstFails) {
+        return (request, response) -> {
+            int execution = executions.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (firstFails && execution == 1) {
+                throw new ServletException("Database is not available");
+            }
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            ((HttpServletResponse) response).setHeader("X-Account-Version", "1");
+            response.getOutputStream().write("{\"accountId\":1}".getBytes());
+        };
+    }
+
+    private List<Future<MockHttpServletResponse>> submit(String method, String uri, FilterChain chain) {
+        List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            responses.add(executor.submit(() -> {
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                filter.doFilter(new MockHttpServletRequest(method, uri), response, chain);
+                return response;
+            }));
+        }
+        return responses;
+    }
+
+    private void awaitCount(String result, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(result) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("single.flight.server.requests").tag("result", result).counter().count();
+    }
+}
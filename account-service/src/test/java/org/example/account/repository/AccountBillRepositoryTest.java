@@ -0,0 +1,81 @@
+package org.example.account.repository;
+
+import org.example.account.entity.AccountBill;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import javax.persistence.PersistenceException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class AccountBillRepositoryTest {
+
+    @Autowired
+    private AccountBillRepository underTest;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void itShouldFindBillIdsByAccountId() {
+        // given
+        underTest.saveAll(List.of(new AccountBill(1L, 10L), new AccountBill(1L, 11L), new AccountBill(2L, 20L)));
+
+        // when
+        List<Long> expected = underTest.findBillIdsByAccountId(1L);
+
+        // then
+        assertThat(expected).containsExactly(10L, 11L);
+        assertThat(underTest.findByAccountIds(List.of(1L, 2L))).hasSize(3);
+        assertThat(underTest.existsByAccountIdAndBillId(2L, 20L)).isTrue();
+        assertThat(underTest.existsByAccountIdAndBillId(2L, 10L)).isFalse();
+    }
+
+    @Test
+    void itShouldDeleteOnlyGivenBillOfAccount() {
+        // given
+        underTest.saveAll(List.of(new AccountBill(1L, 10L), new AccountBill(1L, 11L), new AccountBill(2L, 10L)));
+        entityManager.flush();
+
+        // when
+        int deleted = underTest.deleteByAccountIdAndBillId(1L, 10L);
+
+        // then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(underTest.findBillIdsByAccountId(1L)).containsExactly(11L);
+        assertThat(underTest.findBillIdsByAccountId(2L)).containsExactly(10L);
+    }
+
+    @Test
+    void itShouldDeleteAllBillsOfAccount() {
+        // given
+        underTest.saveAll(List.of(new AccountBill(1L, 10L), new AccountBill(1L, 11L), new AccountBill(2L, 20L)));
+        entityManager.flush();
+
+        // when
+        int deleted = underTest.deleteByAccountId(1L);
+
+        // then
+        assertThat(deleted).isEqualTo(2);
+        assertThat(underTest.findBillIdsByAccountId(1L)).isEmpty();
+        assertThat(underTest.findBillIdsByAccountId(2L)).containsExactly(20L);
+    }
+
+    @Test
+    void itShouldNotSaveAccountBill_whenBillIsAlreadyLinkedToAccount() {
+        // given
+        underTest.save(new AccountBill(1L, 10L));
+
+        // when
+        // then
+        assertThatThrownBy(() -> {
+            underTest.save(new AccountBill(1L, 10L));
+            entityManager.flush();
+        }).isInstanceOf(PersistenceException.class);
+    }
+}
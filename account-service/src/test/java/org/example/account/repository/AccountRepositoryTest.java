@@ -5,11 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import javax.persistence.PersistenceException;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -186,4 +188,66 @@ class AccountRepositoryTest {
         // then
         assertThat(expected.isPresent()).isFalse();
     }
+
+    @Test
+    void itShouldFindAccountsByEmailOrPhoneNumber() {
+        // given
+        Account first = Account.builder()
+                .name("dmitry")
+                .email("dmitry@gmail.com")
+                .phone("+79520009939")
+                .dateOfBirth(LocalDate.of(1999, 7, 9))
+                .creationDate(OffsetDateTime.now())
+                .build();
+        Account second = Account.builder()
+                .name("ivan")
+                .email("ivan@gmail.com")
+                .phone("+79520009938")
+                .dateOfBirth(LocalDate.of(1999, 7, 9))
+                .creationDate(OffsetDateTime.now())
+                .build();
+        Account third = Account.builder()
+                .name("petr")
+                .email("petr@gmail.com")
+                .phone("+79520009937")
+                .dateOfBirth(LocalDate.of(1999, 7, 9))
+                .creationDate(OffsetDateTime.now())
+                .build();
+
+        underTest.saveAll(List.of(first, second, third));
+
+        // when
+        List<Account> byEmailOrPhone = underTest.findByEmailOrPhone("dmitry@gmail.com", "+79520009938");
+        List<Account> byIdOrEmailOrPhone = underTest.findByAccountIdOrEmailOrPhone(third.getAccountId(), "dmitry@gmail.com", "+79520009930");
+
+        // then
+        assertThat(byEmailOrPhone).containsExactlyInAnyOrder(first, second);
+        assertThat(byIdOrEmailOrPhone).containsExactlyInAnyOrder(first, third);
+    }
+
+    @Test
+    void itShouldNotSaveAndFlushAccount_whenAccountPhoneIsAlreadyUsed() {
+        // given
+        entityManager.persistAndFlush(Account.builder()
+                .name("dmitry")
+                .email("dmitry@gmail.com")
+                .phone("+79520009939")
+                .dateOfBirth(LocalDate.of(1999, 7, 9))
+                .creationDate(OffsetDateTime.now())
+                .build());
+        Account account = Account.builder()
+                .name("dmitry1")
+                .email("dmitry1@gmail.com")
+                .phone("+79520009939")
+                .dateOfBirth(LocalDate.of(1999, 7, 9))
+                .creationDate(OffsetDateTime.now())
+                .build();
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.saveAndFlush(account))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .satisfies(e -> assertThat(((DataIntegrityViolationException) e).getMostSpecificCause().getMessage())
+                        .containsIgnoringCase("account_phone_unique"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package org.example.account.service;
+
+import org.example.account.config.RabbitMQConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountEventPublisherTest {
+
+    private AccountEventPublisher underTest;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new AccountEventPublisher(outboxService);
+    }
+
+    @Test
+    void itShouldSaveAccountChangedEventToOutbox() {
+        // given
+        AccountChangedEvent event = new AccountChangedEvent(1L);
+
+        // when
+        underTest.onAccountChanged(event);
+
+        // then
+        verify(outboxService, times(1)).saveMessage(RabbitMQConfig.FANOUT_EXCHANGE_ACCOUNT_CHANGED, "", event);
+    }
+}
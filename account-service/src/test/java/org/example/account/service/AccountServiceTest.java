@@ -1,10 +1,14 @@
 package org.example.account.service;
 
+import org.example.account.config.RabbitMQConfig;
 import org.example.account.entity.Account;
+import org.example.account.entity.AccountBill;
+import org.example.account.entity.DeletedBill;
 import org.example.account.utils.exception.AccountAlreadyExistException;
 import org.example.account.utils.exception.AccountNotFoundException;
+import org.example.account.repository.AccountBillRepository;
 import org.example.account.repository.AccountRepository;
-import org.example.account.rest.BillServiceClient;
+import org.example.account.repository.DeletedBillRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,8 +16,11 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -30,14 +37,23 @@ class AccountServiceTest {
     private AccountRepository accountRepository;
 
     @Mock
-    private BillServiceClient billServiceClient;
+    private AccountBillRepository accountBillRepository;
+
+    @Mock
+    private DeletedBillRepository deletedBillRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
 
     private static final String ACCOUNT_ALREADY_EXIST_BY_EMAIL = "Account with email %s is already exist";
     private static final String ACCOUNT_ALREADY_EXIST_BY_PHONE = "Account with phone number %s is already exist";
 
     @BeforeEach
     void setUp() {
-        underTest = new AccountServiceImpl(accountRepository, billServiceClient);
+        underTest = new AccountServiceImpl(accountRepository, accountBillRepository, deletedBillRepository, outboxService, applicationEventPublisher);
     }
 
     @Test
@@ -66,6 +82,27 @@ class AccountServiceTest {
         assertThat(account).isEqualTo(expected);
     }
 
+    @Test
+    void itShouldGetAccountsByIds() {
+        // given
+        Account account = Account
+                .builder()
+                .accountId(1L)
+                .name("dmitry")
+                .email("dmitry@gmail.com")
+                .phone("+79520009939")
+                .creationDate(OffsetDateTime.now())
+                .build();
+
+        when(accountRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(account));
+
+        // when
+        List<Account> expected = underTest.getAccountsByIds(List.of(1L, 2L));
+
+        // then
+        assertThat(expected).containsExactly(account);
+    }
+
     @Test
     void itShouldNotGetAccountById_whenAccountDoesNotExist() {
         // given
@@ -94,7 +131,7 @@ class AccountServiceTest {
                 .creationDate(OffsetDateTime.now())
                 .build();
 
-        when(accountRepository.findByEmail(email)).thenReturn(Optional.of(account));
+        when(accountRepository.findByEmailOrPhone(email, account.getPhone())).thenReturn(List.of(account));
 
         // when
         // then
@@ -117,13 +154,62 @@ class AccountServiceTest {
                 .creationDate(OffsetDateTime.now())
                 .build();
 
-        when(accountRepository.findByPhone(phone)).thenReturn(Optional.of(account));
+        Account other = Account.builder().accountId(2L).email("other@gmail.com").phone(phone).build();
+        when(accountRepository.findByEmailOrPhone(account.getEmail(), phone)).thenReturn(List.of(other));
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.createAccount(account))
+                .isInstanceOf(AccountAlreadyExistException.class)
+                .hasMessageContaining(ACCOUNT_ALREADY_EXIST_BY_PHONE, phone);
+    }
+
+    @Test
+    void itShouldNotCreateAccount_whenAccountWithSameEmailIsCreatedConcurrently() {
+        // given
+        String email = "dmitry@gmail.com";
+        Account account = Account
+                .builder()
+                .name("dmitry")
+                .email(email)
+                .phone("+79520009939")
+                .build();
+
+        when(accountRepository.findByEmailOrPhone(email, account.getPhone())).thenReturn(List.of());
+        when(accountRepository.saveAndFlush(account)).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new RuntimeException("Unique index or primary key violation: \"ACCOUNT_EMAIL_UNIQUE ON ACCOUNT(EMAIL)\"")));
 
         // when
         // then
         assertThatThrownBy(() -> underTest.createAccount(account))
+                .isInstanceOf(AccountAlreadyExistException.class)
+                .hasMessageContaining(ACCOUNT_ALREADY_EXIST_BY_EMAIL, email);
+        verify(accountBillRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void itShouldNotUpdateAccount_whenAccountWithSamePhoneNumberIsCreatedConcurrently() {
+        // given
+        Long accountId = 1L;
+        String phone = "+79520009939";
+        Account account = Account
+                .builder()
+                .accountId(accountId)
+                .name("dmitry")
+                .email("dmitry@gmail.com")
+                .phone(phone)
+                .build();
+
+        when(accountRepository.findByAccountIdOrEmailOrPhone(accountId, account.getEmail(), phone)).thenReturn(List.of(account));
+        when(accountRepository.saveAndFlush(account)).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new RuntimeException("duplicate key value violates unique constraint \"account_phone_unique\"")));
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.updateAccount(accountId, account))
                 .isInstanceOf(AccountAlreadyExistException.class)
                 .hasMessageContaining(ACCOUNT_ALREADY_EXIST_BY_PHONE, phone);
+        verifyNoInteractions(applicationEventPublisher);
     }
 
     @Test
@@ -139,14 +225,14 @@ class AccountServiceTest {
                 .creationDate(OffsetDateTime.now())
                 .build();
 
-        when(accountRepository.save(account)).thenReturn(account);
+        when(accountRepository.saveAndFlush(account)).thenReturn(account);
 
         // when
         Long expected = underTest.createAccount(account);
 
         // then
         ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
-        verify(accountRepository).save(captor.capture());
+        verify(accountRepository).saveAndFlush(captor.capture());
         Long value = captor.getValue().getAccountId();
         assertThat(accountId).isEqualTo(value);
         assertThat(accountId).isEqualTo(expected);
@@ -165,8 +251,8 @@ class AccountServiceTest {
                 .creationDate(OffsetDateTime.now())
                 .build();
 
-        when(accountRepository.findById(accountId)).thenReturn(Optional.of(account));
-        when(accountRepository.save(account)).thenReturn(account);
+        when(accountRepository.findByAccountIdOrEmailOrPhone(accountId, account.getEmail(), account.getPhone())).thenReturn(List.of(account));
+        when(accountRepository.saveAndFlush(account)).thenReturn(account);
 
         // when
         underTest.updateAccount(accountId, account);
@@ -174,12 +260,15 @@ class AccountServiceTest {
         // then
         ArgumentCaptor<Account> captor1 = ArgumentCaptor.forClass(Account.class);
         ArgumentCaptor<Long> captor2 = ArgumentCaptor.forClass(Long.class);
-        verify(accountRepository).save(captor1.capture());
-        verify(accountRepository).findById(captor2.capture());
+        verify(accountRepository).saveAndFlush(captor1.capture());
+        verify(accountRepository).findByAccountIdOrEmailOrPhone(captor2.capture(), eq(account.getEmail()), eq(account.getPhone()));
         Account value1 = captor1.getValue();
         Long value2 = captor2.getValue();
         assertThat(account).isEqualTo(value1);
         assertThat(accountId).isEqualTo(value2);
+        ArgumentCaptor<AccountChangedEvent> captor3 = ArgumentCaptor.forClass(AccountChangedEvent.class);
+        verify(applicationEventPublisher).publishEvent(captor3.capture());
+        assertThat(captor3.getValue().getAccountId()).isEqualTo(accountId);
     }
 
     @Test
@@ -196,9 +285,8 @@ class AccountServiceTest {
                 .creationDate(OffsetDateTime.now())
                 .build();
 
-        when(accountRepository.findById(accountId)).thenReturn(Optional.of(account));
-        when(accountRepository.findByEmail(email)).thenReturn(Optional.of(account));
-        when(accountRepository.save(account)).thenReturn(account);
+        when(accountRepository.findByAccountIdOrEmailOrPhone(accountId, account.getEmail(), account.getPhone())).thenReturn(List.of(account));
+        when(accountRepository.saveAndFlush(account)).thenReturn(account);
 
         // when
         underTest.updateAccount(accountId, account);
@@ -206,8 +294,8 @@ class AccountServiceTest {
         // then
         ArgumentCaptor<Account> captor1 = ArgumentCaptor.forClass(Account.class);
         ArgumentCaptor<Long> captor2 = ArgumentCaptor.forClass(Long.class);
-        verify(accountRepository).save(captor1.capture());
-        verify(accountRepository).findById(captor2.capture());
+        verify(accountRepository).saveAndFlush(captor1.capture());
+        verify(accountRepository).findByAccountIdOrEmailOrPhone(captor2.capture(), eq(account.getEmail()), eq(account.getPhone()));
         Account value1 = captor1.getValue();
         Long value2 = captor2.getValue();
         assertThat(account).isEqualTo(value1);
@@ -228,9 +316,8 @@ class AccountServiceTest {
                 .creationDate(OffsetDateTime.now())
                 .build();
 
-        when(accountRepository.findById(accountId)).thenReturn(Optional.of(account));
-        when(accountRepository.findByPhone(phone)).thenReturn(Optional.of(account));
-        when(accountRepository.save(account)).thenReturn(account);
+        when(accountRepository.findByAccountIdOrEmailOrPhone(accountId, account.getEmail(), account.getPhone())).thenReturn(List.of(account));
+        when(accountRepository.saveAndFlush(account)).thenReturn(account);
 
         // when
         underTest.updateAccount(accountId, account);
@@ -238,8 +325,8 @@ class AccountServiceTest {
         // then
         ArgumentCaptor<Account> captor1 = ArgumentCaptor.forClass(Account.class);
         ArgumentCaptor<Long> captor2 = ArgumentCaptor.forClass(Long.class);
-        verify(accountRepository).save(captor1.capture());
-        verify(accountRepository).findById(captor2.capture());
+        verify(accountRepository).saveAndFlush(captor1.capture());
+        verify(accountRepository).findByAccountIdOrEmailOrPhone(captor2.capture(), eq(account.getEmail()), eq(account.getPhone()));
         Account value1 = captor1.getValue();
         Long value2 = captor2.getValue();
         assertThat(account).isEqualTo(value1);
@@ -259,7 +346,7 @@ class AccountServiceTest {
                 .creationDate(OffsetDateTime.now())
                 .build();
 
-        when(accountRepository.findById(accountId)).thenReturn(Optional.empty());
+        when(accountRepository.findByAccountIdOrEmailOrPhone(accountId, account.getEmail(), account.getPhone())).thenReturn(List.of());
 
         // when
         // then
@@ -282,8 +369,8 @@ class AccountServiceTest {
                 .creationDate(OffsetDateTime.now())
                 .build();
 
-        when(accountRepository.findById(accountId)).thenReturn(Optional.of(account));
-        when(accountRepository.findByEmail(email)).thenReturn(Optional.of(new Account()));
+        Account other = Account.builder().accountId(2L).email(email).phone("+79520009940").build();
+        when(accountRepository.findByAccountIdOrEmailOrPhone(accountId, email, account.getPhone())).thenReturn(List.of(account, other));
 
         // when
         // then
@@ -306,8 +393,8 @@ class AccountServiceTest {
                 .creationDate(OffsetDateTime.now())
                 .build();
 
-        when(accountRepository.findById(accountId)).thenReturn(Optional.of(account));
-        when(accountRepository.findByPhone(phone)).thenReturn(Optional.of(new Account()));
+        Account other = Account.builder().accountId(2L).email("other@gmail.com").phone(phone).build();
+        when(accountRepository.findByAccountIdOrEmailOrPhone(accountId, account.getEmail(), phone)).thenReturn(List.of(account, other));
 
         // when
         // then
@@ -336,10 +423,16 @@ class AccountServiceTest {
 
         // then
         ArgumentCaptor<Long> captor = ArgumentCaptor.forClass(Long.class);
-        verify(billServiceClient, times(1)).deleteBillByAccountId(accountId);
+        ArgumentCaptor<AccountDeletedEvent> deletedEventCaptor = ArgumentCaptor.forClass(AccountDeletedEvent.class);
+        verify(outboxService, times(1)).saveMessage(eq(RabbitMQConfig.TOPIC_EXCHANGE_ACCOUNT), eq(RabbitMQConfig.ROUTING_KEY_ACCOUNT_DELETED), deletedEventCaptor.capture());
+        assertThat(deletedEventCaptor.getValue().getAccountId()).isEqualTo(accountId);
+        verify(accountBillRepository, times(1)).deleteByAccountId(accountId);
         verify(accountRepository).deleteById(captor.capture());
         Long value = captor.getValue();
         assertThat(accountId).isEqualTo(value);
+        ArgumentCaptor<AccountChangedEvent> eventCaptor = ArgumentCaptor.forClass(AccountChangedEvent.class);
+        verify(applicationEventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getAccountId()).isEqualTo(accountId);
     }
 
     @Test
@@ -370,13 +463,48 @@ class AccountServiceTest {
                 .build();
 
         when(accountRepository.findById(accountId)).thenReturn(Optional.of(account));
-        when(accountRepository.save(account)).thenReturn(account);
+        when(accountBillRepository.existsByAccountIdAndBillId(accountId, billId)).thenReturn(false);
+        when(accountBillRepository.findBillIdsByAccountId(accountId)).thenReturn(List.of(billId));
 
         // when
         Account expected = underTest.addBillToAccount(accountId, billId);
 
         // then
+        ArgumentCaptor<AccountBill> captor = ArgumentCaptor.forClass(AccountBill.class);
+        verify(accountBillRepository).save(captor.capture());
+        assertThat(captor.getValue().getAccountId()).isEqualTo(accountId);
+        assertThat(captor.getValue().getBillId()).isEqualTo(billId);
+        verify(accountRepository, never()).save(any());
         assertThat(expected.getBills().contains(billId)).isTrue();
+        ArgumentCaptor<AccountChangedEvent> eventCaptor = ArgumentCaptor.forClass(AccountChangedEvent.class);
+        verify(applicationEventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getAccountId()).isEqualTo(accountId);
+    }
+
+    @Test
+    void itShouldNotAddBillToAccountTwice() {
+        // given
+        Long accountId = 1L;
+        Long billId = 1L;
+        Account account = Account
+                .builder()
+                .accountId(accountId)
+                .name("dmitry")
+                .email("dmitry@gmail.com")
+                .phone("+79520009939")
+                .creationDate(OffsetDateTime.now())
+                .build();
+
+        when(accountRepository.findById(accountId)).thenReturn(Optional.of(account));
+        when(accountBillRepository.existsByAccountIdAndBillId(accountId, billId)).thenReturn(true);
+        when(accountBillRepository.findBillIdsByAccountId(accountId)).thenReturn(List.of(billId));
+
+        // when
+        Account expected = underTest.addBillToAccount(accountId, billId);
+
+        // then
+        verify(accountBillRepository, never()).save(any());
+        assertThat(expected.getBills()).containsExactly(billId);
     }
 
     @Test
@@ -406,17 +534,52 @@ class AccountServiceTest {
                 .phone("+79520009939")
                 .creationDate(OffsetDateTime.now())
                 .build();
-        account.addBill(billId);
-        account.addBill(2L);
 
         when(accountRepository.findById(accountId)).thenReturn(Optional.of(account));
-        when(accountRepository.save(account)).thenReturn(account);
+        when(accountBillRepository.findBillIdsByAccountId(accountId)).thenReturn(List.of(2L));
 
         // when
         Account expected = underTest.removeBillFromAccount(accountId, billId);
 
         // then
+        verify(accountBillRepository).deleteByAccountIdAndBillId(accountId, billId);
+        ArgumentCaptor<DeletedBill> deletedCaptor = ArgumentCaptor.forClass(DeletedBill.class);
+        verify(deletedBillRepository).save(deletedCaptor.capture());
+        assertThat(deletedCaptor.getValue().getBillId()).isEqualTo(billId);
+        assertThat(deletedCaptor.getValue().getAccountId()).isEqualTo(accountId);
+        verify(accountRepository, never()).save(any());
         assertThat(expected.getBills().contains(billId)).isFalse();
+        ArgumentCaptor<AccountChangedEvent> eventCaptor = ArgumentCaptor.forClass(AccountChangedEvent.class);
+        verify(applicationEventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getAccountId()).isEqualTo(accountId);
+    }
+
+    @Test
+    void itShouldNotAddBillToAccount_whenBillDeletedEventArrivedBeforeCreatedEvent() {
+        // given
+        Long accountId = 1L;
+        Long billId = 1L;
+        Account account = Account
+                .builder()
+                .accountId(accountId)
+                .name("dmitry")
+                .email("dmitry@gmail.com")
+                .phone("+79520009939")
+                .creationDate(OffsetDateTime.now())
+                .build();
+
+        when(accountRepository.findById(accountId)).thenReturn(Optional.of(account));
+        when(deletedBillRepository.existsById(billId)).thenReturn(false, true);
+        when(accountBillRepository.findBillIdsByAccountId(accountId)).thenReturn(List.of());
+
+        // when
+        underTest.removeBillFromAccount(accountId, billId);
+        Account expected = underTest.addBillToAccount(accountId, billId);
+
+        // then
+        verify(deletedBillRepository).save(any(DeletedBill.class));
+        verify(accountBillRepository, never()).save(any());
+        assertThat(expected.getBills()).isEmpty();
     }
 
     @Test
@@ -0,0 +1,100 @@
+package org.example.account.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.account.config.RabbitMQConfig;
+import org.example.account.entity.Account;
+import org.example.account.rest.BillCreatedEvent;
+import org.example.account.rest.BillDeletedEvent;
+import org.example.account.utils.exception.AccountNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BillEventListenerTest {
+
+    private BillEventListener underTest;
+
+    @Mock
+    private AccountService accountService;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new BillEventListener(accountService, new ObjectMapper());
+    }
+
+    @Test
+    void itShouldAddBillToAccount_whenBillIsCreated() {
+        // given
+        when(accountService.addBillToAccount(1L, 10L)).thenReturn(new Account());
+
+        // when
+        underTest.onBillCreated(new BillCreatedEvent(10L, 1L));
+
+        // then
+        verify(accountService, times(1)).addBillToAccount(1L, 10L);
+    }
+
+    @Test
+    void itShouldRemoveBillFromAccount_whenBillIsDeleted() {
+        // given
+        when(accountService.removeBillFromAccount(1L, 10L)).thenReturn(new Account());
+
+        // when
+        underTest.onBillDeleted(new BillDeletedEvent(10L, 1L));
+
+        // then
+        verify(accountService, times(1)).removeBillFromAccount(1L, 10L);
+    }
+
+    @Test
+    void itShouldHandleBillEventsInArrivalOrder_whenDeletedEventArrivesBeforeCreatedEvent() throws IOException {
+        // given
+        Message deleted = message(RabbitMQConfig.ROUTING_KEY_BILL_DELETED, "{\"billId\":10,\"accountId\":1}");
+        Message created = message(RabbitMQConfig.ROUTING_KEY_BILL_CREATED, "{\"billId\":10,\"accountId\":1}");
+
+        // when
+        underTest.onBillEvent(deleted);
+        underTest.onBillEvent(created);
+
+        // then
+        InOrder inOrder = inOrder(accountService);
+        inOrder.verify(accountService).removeBillFromAccount(1L, 10L);
+        inOrder.verify(accountService).addBillToAccount(1L, 10L);
+    }
+
+    @Test
+    void itShouldSkipEvent_whenRoutingKeyIsUnknown() throws IOException {
+        // when
+        underTest.onBillEvent(message("js.key.bill.updated", "{\"billId\":10,\"accountId\":1}"));
+
+        // then
+        verifyNoInteractions(accountService);
+    }
+
+    @Test
+    void itShouldSkipEvent_whenAccountDoesNotExist() {
+        // given
+        when(accountService.addBillToAccount(1L, 10L)).thenThrow(new AccountNotFoundException("Account with id 1 is not found"));
+
+        // when
+        // then
+        assertThatCode(() -> underTest.onBillCreated(new BillCreatedEvent(10L, 1L))).doesNotThrowAnyException();
+    }
+
+    private static Message message(String routingKey, String body) {
+        MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setReceivedRoutingKey(routingKey);
+        return new Message(body.getBytes(), messageProperties);
+    }
+}
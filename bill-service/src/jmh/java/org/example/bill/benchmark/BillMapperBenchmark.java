@@ -0,0 +1,73 @@
+package org.example.bill.benchmark;
+
+import org.example.bill.controller.dto.BillMapper;
+import org.example.bill.controller.dto.BillRequestDTO;
+import org.example.bill.controller.dto.BillResponseDTO;
+import org.example.bill.entity.Bill;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the cost of mapping bills with reflective ModelMapper and with the generated MapStruct mapper.
+ * Response mapping maps a page of bills like {@code GET /bills/account/{accountId}} does.
+ * Run with {@code ./gradlew :bill-service:jmh -Pjmh.includes=BillMapperBenchmark}, the gc profiler reports allocation per op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BillMapperBenchmark {
+
+    @Param({"100"})
+    private int bills;
+
+    private ModelMapper modelMapper;
+    private BillMapper billMapper;
+    private List<Bill> page;
+    private BillRequestDTO request;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        billMapper = Mappers.getMapper(BillMapper.class);
+        page = new ArrayList<>(bills);
+        for (long i = 0; i < bills; i++)
+            page.add(new Bill(i, BigDecimal.valueOf(i * 100), i == 0, OffsetDateTime.now(), false, 1L));
+        request = new BillRequestDTO(BigDecimal.TEN, OffsetDateTime.now(), true, 1L);
+    }
+
+    @Benchmark
+    public List<BillResponseDTO> modelMapperResponses() {
+        List<BillResponseDTO> responses = new ArrayList<>(page.size());
+        for (Bill bill : page)
+            responses.add(modelMapper.map(bill, BillResponseDTO.class));
+        return responses;
+    }
+
+    @Benchmark
+    public List<BillResponseDTO> mapStructResponses() {
+        List<BillResponseDTO> responses = new ArrayList<>(page.size());
+        for (Bill bill : page)
+            responses.add(billMapper.mapToResponse(bill));
+        return responses;
+    }
+
+    @Benchmark
+    public Bill modelMapperRequest() {
+        return modelMapper.map(request, Bill.class);
+    }
+
+    @Benchmark
+    public Bill mapStructRequest() {
+        return billMapper.mapFromRequest(request);
+    }
+}
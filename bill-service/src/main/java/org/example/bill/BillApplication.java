@@ -1,23 +1,18 @@
 package org.example.bill;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
-import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableFeignClients
+@EnableScheduling
 public class BillApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(BillApplication.class, args);
     }
-
-    @Bean
-    public ModelMapper objectMapper() {
-        return new ModelMapper();
-    }
 }
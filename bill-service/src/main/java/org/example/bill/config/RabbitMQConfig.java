@@ -0,0 +1,66 @@
+package org.example.bill.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    public static final String TOPIC_EXCHANGE_BILL = "js.bill.exchange";
+    public static final String ROUTING_KEY_BILL_CREATED = "js.key.bill.created";
+    public static final String ROUTING_KEY_BILL_DELETED = "js.key.bill.deleted";
+    public static final String FANOUT_EXCHANGE_BILL_CHANGED = "js.bill.changed.exchange";
+    public static final String TOPIC_EXCHANGE_ACCOUNT = "js.account.exchange";
+    public static final String ROUTING_KEY_ACCOUNT_DELETED = "js.key.account.deleted";
+    public static final String QUEUE_ACCOUNT_DELETED = "js.bill.account.deleted";
+
+    /**
+     * Converter for RabbitMQ messages, writes JSON bytes with the application ObjectMapper.
+     * Also used by RabbitTemplate. Incoming messages are read into listener parameter type.
+     */
+    @Bean
+    public MessageConverter messageConverter(ObjectMapper objectMapper) {
+        Jackson2JsonMessageConverter messageConverter = new Jackson2JsonMessageConverter(objectMapper);
+        messageConverter.setAlwaysConvertToInferredType(true);
+        return messageConverter;
+    }
+
+    @Bean
+    public TopicExchange billExchange() {
+        return new TopicExchange(TOPIC_EXCHANGE_BILL);
+    }
+
+    @Bean
+    public FanoutExchange billChangedExchange() {
+        return new FanoutExchange(FANOUT_EXCHANGE_BILL_CHANGED);
+    }
+
+    @Bean
+    public TopicExchange accountExchange() {
+        return new TopicExchange(TOPIC_EXCHANGE_ACCOUNT);
+    }
+
+    /**
+     * Durable queue shared by all instances, every deleted account is handled once.
+     */
+    @Bean
+    public Queue accountDeletedQueue() {
+        return new Queue(QUEUE_ACCOUNT_DELETED);
+    }
+
+    @Bean
+    public Binding accountDeletedBinding() {
+        return BindingBuilder
+                .bind(accountDeletedQueue())
+                .to(accountExchange())
+                .with(ROUTING_KEY_ACCOUNT_DELETED);
+    }
+}
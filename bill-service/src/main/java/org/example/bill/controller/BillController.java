@@ -1,15 +1,24 @@
 package org.example.bill.controller;
 
+import org.example.bill.controller.dto.BillAdjustItemRequestDTO;
+import org.example.bill.controller.dto.BillAdjustRequestDTO;
 import org.example.bill.controller.dto.BillMapper;
 import org.example.bill.controller.dto.BillRequestDTO;
 import org.example.bill.controller.dto.BillResponseDTO;
+import org.example.bill.controller.dto.BillTransferRequestDTO;
+import org.example.bill.controller.dto.BillTransferResponseDTO;
 import org.example.bill.service.BillService;
 import org.example.bill.service.BillServiceImpl;
+import org.example.bill.utils.exception.BillNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/bills")
@@ -46,6 +55,20 @@ public class BillController {
         return mapper.mapToResponse(billService.getBillById(billId));
     }
 
+    /**
+     * Obtain several bills in one call.
+     *
+     * @param billIds bill ids
+     * @return dto bills, not existing bills are skipped
+     */
+    @PostMapping("/batch")
+    public List<BillResponseDTO> getBills(@RequestBody List<Long> billIds) {
+        return billService.getBillsByIds(billIds)
+                .stream()
+                .map(mapper::mapToResponse)
+                .toList();
+    }
+
     /**
      * UPDATE bill by id.
      *
@@ -64,6 +87,81 @@ public class BillController {
         ));
     }
 
+    /**
+     * Change bill amount by delta in one call instead of read-modify-write.
+     *
+     * @param billId               bill id
+     * @param billAdjustRequestDTO request with signed sum to add to the bill amount
+     * @return dto updated bill
+     */
+    @PutMapping("/adjust/{billId}")
+    public BillResponseDTO adjustBill(
+            @PathVariable("billId") Long billId,
+            @RequestBody @Valid BillAdjustRequestDTO billAdjustRequestDTO
+    ) {
+        return mapper.mapToResponse(billService.adjustBill(billId, billAdjustRequestDTO.getDelta()));
+    }
+
+    /**
+     * Change amounts of several bills in one call, deltas for the same bill are summed.
+     *
+     * @param billAdjustItemRequestDTOS requests with bill id and signed sum to add to the bill amount
+     * @return dto updated bills, bills that do not exist or have not enough money are not returned
+     */
+    @PutMapping("/adjust")
+    public List<BillResponseDTO> adjustBills(@RequestBody List<BillAdjustItemRequestDTO> billAdjustItemRequestDTOS) {
+        Map<Long, BigDecimal> deltas = billAdjustItemRequestDTOS.stream()
+                .collect(Collectors.toMap(BillAdjustItemRequestDTO::getBillId, BillAdjustItemRequestDTO::getDelta, BigDecimal::add));
+        return billService.adjustBills(deltas)
+                .stream()
+                .map(mapper::mapToResponse)
+                .toList();
+    }
+
+    /**
+     * Apply settlement batch in one transaction, deltas for the same bill are summed.
+     * Nothing is changed if any bill does not exist, belongs to other account or has not enough money.
+     *
+     * @param billAdjustItemRequestDTOS requests with bill id, signed sum and optional expected owner of the bill
+     * @return dto updated bills
+     */
+    @PutMapping("/settle")
+    public List<BillResponseDTO> settleBills(@RequestBody List<BillAdjustItemRequestDTO> billAdjustItemRequestDTOS) {
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        Map<Long, Long> billAccounts = new HashMap<>();
+        for (BillAdjustItemRequestDTO item : billAdjustItemRequestDTOS) {
+            deltas.merge(item.getBillId(), item.getDelta(), BigDecimal::add);
+            if (item.getAccountId() == null)
+                continue;
+            Long accountId = billAccounts.putIfAbsent(item.getBillId(), item.getAccountId());
+            // one bill can not belong to two accounts
+            if (accountId != null && !accountId.equals(item.getAccountId()))
+                throw new BillNotFoundException("Bill with id " + item.getBillId() + " is not found for account with id " + item.getAccountId());
+        }
+        return billService.settleBills(deltas, billAccounts)
+                .stream()
+                .map(mapper::mapToResponse)
+                .toList();
+    }
+
+    /**
+     * Move money between two bills in one call and one transaction.
+     *
+     * @param billTransferRequestDTO request with bill from, bill to or account to and amount
+     * @return dto with bill from, resolved bill to and amount
+     */
+    @PostMapping("/transfer")
+    public BillTransferResponseDTO transfer(@RequestBody @Valid BillTransferRequestDTO billTransferRequestDTO) {
+        Long toBillId = billService.transferBetweenBills(
+                billTransferRequestDTO.getFromAccountId(),
+                billTransferRequestDTO.getFromBillId(),
+                billTransferRequestDTO.getToAccountId(),
+                billTransferRequestDTO.getToBillId(),
+                billTransferRequestDTO.getAmount()
+        );
+        return new BillTransferResponseDTO(billTransferRequestDTO.getFromBillId(), toBillId, billTransferRequestDTO.getAmount());
+    }
+
     /**
      * DELETE bill by id.
      *
@@ -114,4 +212,29 @@ public class BillController {
                 .toList();
     }
 
+    /**
+     * Obtain account default bill by account id.
+     *
+     * @param accountId account id
+     * @return dto default bill
+     */
+    @GetMapping("/account/{accountId}/default")
+    public BillResponseDTO getDefaultBill(@PathVariable("accountId") Long accountId) {
+        return mapper.mapToResponse(billService.getDefaultBill(accountId));
+    }
+
+    /**
+     * Obtain default bills of several accounts in one call.
+     *
+     * @param accountIds account ids
+     * @return dto default bills, accounts without default bill are skipped
+     */
+    @PostMapping("/account/default")
+    public List<BillResponseDTO> getDefaultBills(@RequestBody List<Long> accountIds) {
+        return billService.getDefaultBills(accountIds)
+                .stream()
+                .map(mapper::mapToResponse)
+                .toList();
+    }
+
 }
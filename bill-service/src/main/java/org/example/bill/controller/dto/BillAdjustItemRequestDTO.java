@@ -0,0 +1,24 @@
+package org.example.bill.controller.dto;
+
+import lombok.*;
+
+import javax.validation.constraints.NotNull;
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class BillAdjustItemRequestDTO {
+    @NotNull(message = "bill id should be not null")
+    private Long billId;
+
+    @NotNull(message = "delta should be not null")
+    private BigDecimal delta;
+
+    /**
+     * Expected owner of the bill, checked on settlement if set.
+     */
+    private Long accountId;
+}
@@ -0,0 +1,16 @@
+package org.example.bill.controller.dto;
+
+import lombok.*;
+
+import javax.validation.constraints.NotNull;
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class BillAdjustRequestDTO {
+    @NotNull(message = "delta should be not null")
+    private BigDecimal delta;
+}
@@ -1,29 +1,21 @@
 package org.example.bill.controller.dto;
 
 import org.example.bill.entity.Bill;
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Service;
+import org.mapstruct.Builder;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
 
 /**
  * �������������� �������� -> ��������, �������� -> ������.
  */
-@Service
-public class BillMapper {
+@Mapper(componentModel = "spring", builder = @Builder(disableBuilder = true), unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface BillMapper {
 
-    private final ModelMapper mapper;
+    @Mapping(target = "billId", ignore = true)
+    @Mapping(target = "default", ignore = true)
+    Bill mapFromRequest(BillRequestDTO billRequestDTO);
 
-    @Autowired
-    public BillMapper(ModelMapper mapper) {
-        this.mapper = mapper;
-    }
-
-    public Bill mapFromRequest(BillRequestDTO billRequestDTO) {
-        return mapper.map(billRequestDTO, Bill.class);
-    }
-
-    public BillResponseDTO mapToResponse(Bill bill) {
-        return mapper.map(bill, BillResponseDTO.class);
-    }
+    BillResponseDTO mapToResponse(Bill bill);
 
 }
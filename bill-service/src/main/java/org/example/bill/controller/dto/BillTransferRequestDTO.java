@@ -0,0 +1,28 @@
+package org.example.bill.controller.dto;
+
+import lombok.*;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class BillTransferRequestDTO {
+    @NotNull(message = "sender account id should be not null")
+    private Long fromAccountId;
+
+    @NotNull(message = "sender bill id should be not null")
+    private Long fromBillId;
+
+    private Long toAccountId;
+
+    private Long toBillId;
+
+    @NotNull(message = "amount should be not null")
+    @Positive(message = "amount should be positive")
+    private BigDecimal amount;
+}
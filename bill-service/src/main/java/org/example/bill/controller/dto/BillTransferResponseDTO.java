@@ -0,0 +1,16 @@
+package org.example.bill.controller.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class BillTransferResponseDTO {
+    private Long fromBillId;
+    private Long toBillId;
+    private BigDecimal amount;
+}
@@ -7,7 +7,7 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 @Entity(name = "Bill")
-@Table(name = "bill")
+@Table(name = "bill", indexes = @Index(name = "bill_account_id_is_default_idx", columnList = "account_id, is_default"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,7 +18,7 @@ import java.time.OffsetDateTime;
 public class Bill {
 
     @Id
-    @SequenceGenerator(name = "bill_sequence", sequenceName = "bill_sequence", allocationSize = 1)
+    @SequenceGenerator(name = "bill_sequence", sequenceName = "bill_sequence", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bill_sequence")
     @Column(name = "id", updatable = false)
     private Long billId;
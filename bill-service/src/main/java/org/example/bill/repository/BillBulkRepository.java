@@ -0,0 +1,18 @@
+package org.example.bill.repository;
+
+import org.example.bill.entity.Bill;
+
+import java.util.List;
+
+public interface BillBulkRepository {
+
+    /**
+     * Delete all bills of account with one DELETE statement and return deleted rows.
+     * Returned bills are not managed, persistence context is cleared after delete.
+     *
+     * @param accountId account id
+     * @return deleted bills
+     */
+    List<Bill> deleteByAccountIdReturning(Long accountId);
+
+}
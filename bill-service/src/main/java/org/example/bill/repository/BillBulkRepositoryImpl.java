@@ -0,0 +1,58 @@
+package org.example.bill.repository;
+
+import org.example.bill.entity.Bill;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deleted rows come back from the DELETE itself with PostgreSQL RETURNING.
+ * Rows are read with JDBC, so no entity is loaded into the persistence context.
+ */
+public class BillBulkRepositoryImpl implements BillBulkRepository {
+
+    private static final String COLUMNS = "id, amount, is_default, creation_date, overdraft_enabled, account_id";
+    private static final String DELETE_RETURNING = "DELETE FROM bill WHERE account_id = ? RETURNING " + COLUMNS;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Bill> deleteByAccountIdReturning(Long accountId) {
+        entityManager.flush();
+        List<Bill> deletedBills = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_RETURNING)) {
+                statement.setLong(1, accountId);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    List<Bill> bills = new ArrayList<>();
+                    while (resultSet.next())
+                        bills.add(mapBill(resultSet));
+                    return bills;
+                }
+            }
+        });
+        entityManager.clear();
+        return deletedBills;
+    }
+
+    private Bill mapBill(ResultSet resultSet) throws SQLException {
+        // OffsetDateTime is stored as timestamp in JVM time zone, read it back the same way as Hibernate does
+        OffsetDateTime creationDate = OffsetDateTime.ofInstant(resultSet.getTimestamp("creation_date").toInstant(), ZoneId.systemDefault());
+        return new Bill(
+                resultSet.getLong("id"),
+                resultSet.getBigDecimal("amount"),
+                resultSet.getBoolean("is_default"),
+                creationDate,
+                resultSet.getBoolean("overdraft_enabled"),
+                resultSet.getLong("account_id")
+        );
+    }
+}
@@ -1,15 +1,54 @@
 package org.example.bill.repository;
 
-import feign.Param;
 import org.example.bill.entity.Bill;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BillRepository extends CrudRepository<Bill, Long> {
+public interface BillRepository extends CrudRepository<Bill, Long>, BillBulkRepository {
 
     @Query("SELECT b FROM Bill AS b WHERE account = :accountId")
     List<Bill> findByAccountId(@Param("accountId") Long accountId);
 
+    @Query("SELECT b FROM Bill AS b WHERE b.billId IN :billIds")
+    List<Bill> findByBillIds(@Param("billIds") Collection<Long> billIds);
+
+    @Query("SELECT b FROM Bill AS b WHERE b.account = :accountId AND b.isDefault = true")
+    Optional<Bill> findDefaultByAccountId(@Param("accountId") Long accountId);
+
+    @Query("SELECT b FROM Bill AS b WHERE b.account IN :accountIds AND b.isDefault = true")
+    List<Bill> findDefaultByAccountIds(@Param("accountIds") Collection<Long> accountIds);
+
+    /**
+     * Change bill amount by delta in a single conditional UPDATE.
+     * Bill without overdraft is not updated if the result amount becomes negative.
+     *
+     * @param billId bill id
+     * @param delta  signed sum to add to the bill amount
+     * @return number of updated rows, 0 if bill does not exist or has not enough money
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Bill AS b SET b.amount = b.amount + :delta " +
+            "WHERE b.billId = :billId AND (b.overdraftEnabled = true OR b.amount + :delta >= 0)")
+    int adjustAmount(@Param("billId") Long billId, @Param("delta") BigDecimal delta);
+
+    /**
+     * Make bill the only default bill of account in a single UPDATE.
+     * Only the current default bill and the new one are changed, both are found by account and default flag index.
+     *
+     * @param accountId account id
+     * @param billId    new default bill id
+     * @return number of updated rows
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Bill AS b SET b.isDefault = CASE WHEN b.billId = :billId THEN true ELSE false END " +
+            "WHERE b.account = :accountId AND (b.isDefault = true OR b.billId = :billId)")
+    int makeDefault(@Param("accountId") Long accountId, @Param("billId") Long billId);
+
 }
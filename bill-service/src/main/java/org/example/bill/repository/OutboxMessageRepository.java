@@ -0,0 +1,30 @@
+package org.example.bill.repository;
+
+import org.example.bill.entity.OutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.List;
+
+public interface OutboxMessageRepository extends CrudRepository<OutboxMessage, Long> {
+
+    /**
+     * Lock the oldest messages, rows locked by another relay instance are skipped.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM OutboxMessage AS m ORDER BY m.messageId")
+    List<OutboxMessage> findBatchForUpdate(Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM OutboxMessage AS m WHERE m.messageId IN :messageIds")
+    int deleteByMessageIds(@Param("messageIds") List<Long> messageIds);
+
+}
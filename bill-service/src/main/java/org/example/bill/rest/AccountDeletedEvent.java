@@ -0,0 +1,12 @@
+package org.example.bill.rest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountDeletedEvent {
+    private Long accountId;
+}
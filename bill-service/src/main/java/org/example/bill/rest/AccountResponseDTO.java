@@ -1,22 +0,0 @@
-package org.example.bill.rest;
-
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-
-import java.time.OffsetDateTime;
-import java.util.List;
-
-@Getter
-@NoArgsConstructor
-@Builder
-@AllArgsConstructor
-public class AccountResponseDTO {
-    private Long accountId;
-    private String name;
-    private String email;
-    private String phone;
-    private OffsetDateTime creationDate;
-    private List<Long> bills;
-}
@@ -0,0 +1,31 @@
+package org.example.bill.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.bill.config.RabbitMQConfig;
+import org.example.bill.rest.AccountDeletedEvent;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class AccountDeletedListener {
+
+    private final BillService billService;
+
+    @Autowired
+    public AccountDeletedListener(BillService billService) {
+        this.billService = billService;
+    }
+
+    /**
+     * Delete all bills of account deleted in account-service.
+     * Repeated event finds no bills and changes nothing.
+     *
+     * @param event account deleted event
+     */
+    @RabbitListener(queues = RabbitMQConfig.QUEUE_ACCOUNT_DELETED)
+    public void onAccountDeleted(AccountDeletedEvent event) {
+        billService.deleteBillsByAccountId(event.getAccountId());
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.bill.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Event about updated or deleted bills, the gateway drops cached bills on it.
+ * One event is sent per transaction for all bills it changed.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BillChangedEvent {
+    private List<Long> billIds;
+}
@@ -0,0 +1,16 @@
+package org.example.bill.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Event about created bill, account-service updates account bills on it.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BillCreatedEvent {
+    private Long billId;
+    private Long accountId;
+}
@@ -0,0 +1,16 @@
+package org.example.bill.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Event about deleted bill, account-service updates account bills on it.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BillDeletedEvent {
+    private Long billId;
+    private Long accountId;
+}
@@ -0,0 +1,29 @@
+package org.example.bill.service;
+
+import org.example.bill.config.RabbitMQConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class BillEventPublisher {
+
+    private final OutboxService outboxService;
+
+    @Autowired
+    public BillEventPublisher(OutboxService outboxService) {
+        this.outboxService = outboxService;
+    }
+
+    /**
+     * Save bill changed event for RabbitMQ in the changing transaction just before commit, the message is sent by
+     * {@link OutboxRelay}, so no broker call is made on the request thread.
+     *
+     * @param event bill changed event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onBillChanged(BillChangedEvent event) {
+        outboxService.saveMessage(RabbitMQConfig.FANOUT_EXCHANGE_BILL_CHANGED, "", event);
+    }
+}
@@ -3,17 +3,33 @@ package org.example.bill.service;
 import org.example.bill.entity.Bill;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 public interface BillService {
 
     Bill getBillById(Long billId);
 
+    List<Bill> getBillsByIds(List<Long> billIds);
+
     @Transactional
     Long createBill(Bill bill);
 
     Bill updateBill(Long billId, Bill newBill);
 
+    @Transactional
+    Bill adjustBill(Long billId, BigDecimal delta);
+
+    @Transactional
+    List<Bill> adjustBills(Map<Long, BigDecimal> deltas);
+
+    @Transactional
+    List<Bill> settleBills(Map<Long, BigDecimal> deltas, Map<Long, Long> billAccounts);
+
+    @Transactional
+    Long transferBetweenBills(Long fromAccountId, Long fromBillId, Long toAccountId, Long toBillId, BigDecimal amount);
+
     @Transactional
     Bill deleteBill(Long billId);
 
@@ -21,6 +37,10 @@ public interface BillService {
 
     List<Bill> getBillsByAccountId(Long accountId);
 
+    Bill getDefaultBill(Long accountId);
+
+    List<Bill> getDefaultBills(List<Long> accountIds);
+
     @Transactional
     Bill makeBillDefault(Long billId);
 }
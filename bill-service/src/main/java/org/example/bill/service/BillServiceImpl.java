@@ -1,16 +1,25 @@
 package org.example.bill.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.bill.config.RabbitMQConfig;
 import org.example.bill.entity.Bill;
+import org.example.bill.utils.exception.BillNotEnoughMoneyException;
 import org.example.bill.utils.exception.BillNotFoundException;
 import org.example.bill.repository.BillRepository;
-import org.example.bill.rest.AccountServiceClient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 
@@ -19,13 +28,22 @@ import static java.lang.String.format;
 public class BillServiceImpl implements BillService {
 
     private final BillRepository billRepository;
-    private final AccountServiceClient accountServiceClient;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher applicationEventPublisher;
     private static final String BILL_NOT_FOUND_BY_ID = "Bill with id %d is not found";
+    private static final String BILL_NOT_ENOUGH_MONEY = "Bill with id %d have not enough money";
+    private static final String BILL_NOT_FOUND_BY_ACCOUNT = "Bill with id %d is not found for account with id %d";
+    private static final String DEFAULT_BILL_NOT_FOUND = "Unable to find default bill for account with id %d";
 
     @Autowired
-    public BillServiceImpl(BillRepository billRepository, AccountServiceClient accountServiceClient) {
+    public BillServiceImpl(
+            BillRepository billRepository,
+            OutboxService outboxService,
+            ApplicationEventPublisher applicationEventPublisher
+    ) {
         this.billRepository = billRepository;
-        this.accountServiceClient = accountServiceClient;
+        this.outboxService = outboxService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
@@ -42,7 +60,19 @@ public class BillServiceImpl implements BillService {
     }
 
     /**
-     * Create bill and send message to account-service for bi-directional links.
+     * Obtain several bills with one query.
+     *
+     * @param billIds bill ids
+     * @return bills, not existing bills are skipped
+     */
+    @Override
+    public List<Bill> getBillsByIds(List<Long> billIds) {
+        return billIds.isEmpty() ? List.of() : billRepository.findByBillIds(billIds);
+    }
+
+    /**
+     * Create bill and save bill created event for account-service in the same transaction,
+     * account bills are updated asynchronously.
      *
      * @param bill bill
      * @return bill id
@@ -52,13 +82,17 @@ public class BillServiceImpl implements BillService {
     public Long createBill(Bill bill) {
         bill.setCreationDate(OffsetDateTime.now());
         Long billId = billRepository.save(bill).getBillId();
-        accountServiceClient.addBillToAccount(bill.getAccount(), billId);
+        outboxService.saveMessage(
+                RabbitMQConfig.TOPIC_EXCHANGE_BILL,
+                RabbitMQConfig.ROUTING_KEY_BILL_CREATED,
+                new BillCreatedEvent(billId, bill.getAccount())
+        );
         log.info("Create bill with id " + billId);
         return billId;
     }
 
     /**
-     * Update bill.
+     * Update bill and notify other services that bill is changed.
      *
      * @param billId  bill id
      * @param newBill updated bill
@@ -73,11 +107,126 @@ public class BillServiceImpl implements BillService {
         bill.setAmount(newBill.getAmount());
         bill.setOverdraftEnabled(newBill.isOverdraftEnabled());
         log.info("Update bill with id " + billId + " set amount " + newBill.getAmount() + " set overdraft " + newBill.isOverdraftEnabled());
-        return billRepository.save(bill);
+        Bill updatedBill = billRepository.save(bill);
+        publishBillsChanged(List.of(billId));
+        return updatedBill;
+    }
+
+    /**
+     * Change bill amount by delta on the database side, so concurrent deposits and transfers
+     * do not overwrite each other. Negative result amount is allowed only for bills with overdraft.
+     *
+     * @param billId bill id
+     * @param delta  signed sum to add to the bill amount
+     * @return updated bill
+     * @throws BillNotFoundException       if bill does not exist by id
+     * @throws BillNotEnoughMoneyException if bill without overdraft has not enough money
+     */
+    @Override
+    @Transactional
+    public Bill adjustBill(Long billId, BigDecimal delta) {
+        applyDelta(billId, delta);
+        publishBillsChanged(List.of(billId));
+        log.info("Adjust bill with id " + billId + " by " + delta);
+        return getBillById(billId);
+    }
+
+    /**
+     * Change amounts of several bills in one transaction, one conditional UPDATE per bill.
+     * Bills are updated in ascending id order, bills that do not exist or have not enough money are skipped.
+     *
+     * @param deltas signed sums to add by bill id
+     * @return updated bills
+     */
+    @Override
+    @Transactional
+    public List<Bill> adjustBills(Map<Long, BigDecimal> deltas) {
+        List<Long> adjustedBillIds = new ArrayList<>(deltas.size());
+        new TreeMap<>(deltas).forEach((billId, delta) -> {
+            if (billRepository.adjustAmount(billId, delta) == 1)
+                adjustedBillIds.add(billId);
+        });
+        publishBillsChanged(adjustedBillIds);
+        log.info("Adjust " + adjustedBillIds.size() + " of " + deltas.size() + " bills");
+        List<Bill> adjustedBills = new ArrayList<>(adjustedBillIds.size());
+        billRepository.findAllById(adjustedBillIds).forEach(adjustedBills::add);
+        return adjustedBills;
+    }
+
+    /**
+     * Apply net deltas of a settlement batch in one transaction, all or nothing.
+     * Bills are updated in ascending id order, so concurrent settlements and transfers do not deadlock.
+     *
+     * @param deltas       signed sums to add to the bill amounts by bill id
+     * @param billAccounts expected owners by bill id, bills without owner are not checked
+     * @return updated bills
+     * @throws BillNotFoundException       if bill does not exist or does not belong to expected account
+     * @throws BillNotEnoughMoneyException if bill without overdraft gets negative amount
+     */
+    @Override
+    @Transactional
+    public List<Bill> settleBills(Map<Long, BigDecimal> deltas, Map<Long, Long> billAccounts) {
+        if (!billAccounts.isEmpty()) {
+            Map<Long, Long> owners = new HashMap<>();
+            billRepository.findAllById(billAccounts.keySet()).forEach(bill -> owners.put(bill.getBillId(), bill.getAccount()));
+            billAccounts.forEach((billId, accountId) -> {
+                if (!accountId.equals(owners.get(billId)))
+                    throw new BillNotFoundException(format(BILL_NOT_FOUND_BY_ACCOUNT, billId, accountId));
+            });
+        }
+
+        new TreeMap<>(deltas).forEach(this::applyDelta);
+        publishBillsChanged(List.copyOf(deltas.keySet()));
+        log.info("Settle " + deltas.size() + " bills");
+        List<Bill> settledBills = new ArrayList<>(deltas.size());
+        billRepository.findAllById(deltas.keySet()).forEach(settledBills::add);
+        return settledBills;
+    }
+
+    /**
+     * Move money between two bills in one transaction. If bill to is not set, money goes to the account default bill.
+     * Bills are updated in ascending id order, so concurrent transfers lock rows in the same order and do not deadlock.
+     *
+     * @param fromAccountId account id of bill from
+     * @param fromBillId    bill from
+     * @param toAccountId   account id of bill to, used when bill to is not set
+     * @param toBillId      bill to, can be null
+     * @param amount        sum of transfer
+     * @return id of bill to
+     * @throws BillNotFoundException       if bill from does not belong to account or bill to does not exist
+     * @throws BillNotEnoughMoneyException if bill from without overdraft has not enough money
+     */
+    @Override
+    @Transactional
+    public Long transferBetweenBills(Long fromAccountId, Long fromBillId, Long toAccountId, Long toBillId, BigDecimal amount) {
+        Bill fromBill = getBillById(fromBillId);
+        if (!fromBill.getAccount().equals(fromAccountId))
+            throw new BillNotFoundException(format(BILL_NOT_FOUND_BY_ACCOUNT, fromBillId, fromAccountId));
+
+        Long resolvedToBillId = toBillId != null ? toBillId : getDefaultBill(toAccountId).getBillId();
+
+        if (fromBillId < resolvedToBillId) {
+            applyDelta(fromBillId, amount.negate());
+            applyDelta(resolvedToBillId, amount);
+        } else {
+            applyDelta(resolvedToBillId, amount);
+            applyDelta(fromBillId, amount.negate());
+        }
+        publishBillsChanged(List.of(fromBillId, resolvedToBillId));
+        log.info("Transfer " + amount + " from bill with id " + fromBillId + " to bill with id " + resolvedToBillId);
+        return resolvedToBillId;
+    }
+
+    private void applyDelta(Long billId, BigDecimal delta) {
+        if (billRepository.adjustAmount(billId, delta) == 0) {
+            if (!billRepository.existsById(billId))
+                throw new BillNotFoundException(format(BILL_NOT_FOUND_BY_ID, billId));
+            throw new BillNotEnoughMoneyException(format(BILL_NOT_ENOUGH_MONEY, billId));
+        }
     }
 
     /**
-     * Delete bill and send request to account-service
+     * Delete bill and save bill deleted event for account-service in the same transaction.
      *
      * @param billId bill id
      * @return bill
@@ -87,23 +236,29 @@ public class BillServiceImpl implements BillService {
     public Bill deleteBill(Long billId) {
         Bill deletedBill = getBillById(billId);
         billRepository.deleteById(billId);
-        accountServiceClient.removeBillFromAccount(deletedBill.getAccount(), billId);
+        outboxService.saveMessage(
+                RabbitMQConfig.TOPIC_EXCHANGE_BILL,
+                RabbitMQConfig.ROUTING_KEY_BILL_DELETED,
+                new BillDeletedEvent(billId, deletedBill.getAccount())
+        );
+        publishBillsChanged(List.of(billId));
         log.info("Delete bill with id " + billId);
         return deletedBill;
     }
 
     /**
-     * Delete all accounts bills by request from account-service when account is deleted.
+     * Delete all accounts bills with one statement when account is deleted in account-service.
      *
      * @param accountId account id
      * @return list of deleted bills
      */
     @Override
+    @Transactional
     public List<Bill> deleteBillsByAccountId(Long accountId) {
-        List<Bill> billsToDelete = getBillsByAccountId(accountId);
-        billRepository.deleteAll(billsToDelete);
-        log.info("Delete bills for account " + accountId);
-        return billsToDelete;
+        List<Bill> deletedBills = billRepository.deleteByAccountIdReturning(accountId);
+        publishBillsChanged(deletedBills.stream().map(Bill::getBillId).collect(Collectors.toList()));
+        log.info("Delete " + deletedBills.size() + " bills for account " + accountId);
+        return deletedBills;
     }
 
     /**
@@ -118,7 +273,37 @@ public class BillServiceImpl implements BillService {
     }
 
     /**
-     * Mark bill as account default.
+     * Obtain account default bill with one lookup on the (account_id, is_default) index.
+     * The bill is not cached: its amount changes on every deposit and transfer, also on other instances.
+     *
+     * @param accountId account id
+     * @return default bill
+     * @throws BillNotFoundException if account has no default bill
+     */
+    @Override
+    public Bill getDefaultBill(Long accountId) {
+        return billRepository.findDefaultByAccountId(accountId).orElseThrow(
+                () -> new BillNotFoundException(format(DEFAULT_BILL_NOT_FOUND, accountId))
+        );
+    }
+
+    /**
+     * Obtain default bills of several accounts with one query. Accounts without default bill are skipped.
+     *
+     * @param accountIds account ids
+     * @return default bills
+     */
+    @Override
+    public List<Bill> getDefaultBills(List<Long> accountIds) {
+        if (accountIds.isEmpty())
+            return List.of();
+
+        return billRepository.findDefaultByAccountIds(accountIds);
+    }
+
+    /**
+     * Mark bill as account default, previous default bill is reset by the same UPDATE.
+     * Previous default bill is looked up only to notify other services that both bills are changed.
      *
      * @param billId bill id
      * @return bill
@@ -127,14 +312,21 @@ public class BillServiceImpl implements BillService {
     @Transactional
     public Bill makeBillDefault(Long billId) {
         Bill bill = getBillById(billId);
-        // get all accounts bill
-        List<Bill> accountBills = getBillsByAccountId(bill.getAccount());
-        accountBills.forEach(b -> b.setDefault(false));
+        Optional<Bill> previousDefaultBill = billRepository.findDefaultByAccountId(bill.getAccount());
+        billRepository.makeDefault(bill.getAccount(), billId);
         bill.setDefault(true);
+        publishBillsChanged(previousDefaultBill
+                .filter(previous -> !previous.getBillId().equals(billId))
+                .map(previous -> List.of(previous.getBillId(), billId))
+                .orElse(List.of(billId)));
 
         log.info("Set bill with id " + billId + " as account default");
-        billRepository.saveAll(accountBills);
-        return billRepository.save(bill);
+        return bill;
+    }
+
+    private void publishBillsChanged(List<Long> billIds) {
+        if (!billIds.isEmpty())
+            applicationEventPublisher.publishEvent(new BillChangedEvent(billIds));
     }
 
 }
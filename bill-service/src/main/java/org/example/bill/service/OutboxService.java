@@ -0,0 +1,46 @@
+package org.example.bill.service;
+
+import org.example.bill.entity.OutboxMessage;
+import org.example.bill.repository.OutboxMessageRepository;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+
+@Service
+public class OutboxService {
+
+    private final OutboxMessageRepository outboxMessageRepository;
+
+    private final MessageConverter messageConverter;
+
+    @Autowired
+    public OutboxService(OutboxMessageRepository outboxMessageRepository, MessageConverter messageConverter) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.messageConverter = messageConverter;
+    }
+
+    /**
+     * Save message for RabbitMQ in the caller transaction, message is sent after commit by {@link OutboxRelay}.
+     *
+     * @param exchange   RabbitMQ exchange
+     * @param routingKey RabbitMQ routing key
+     * @param message    message body
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void saveMessage(String exchange, String routingKey, Object message) {
+        Message amqpMessage = messageConverter.toMessage(message, new MessageProperties());
+        outboxMessageRepository.save(new OutboxMessage(
+                exchange,
+                routingKey,
+                amqpMessage.getMessageProperties().getContentType(),
+                amqpMessage.getBody(),
+                OffsetDateTime.now())
+        );
+    }
+}
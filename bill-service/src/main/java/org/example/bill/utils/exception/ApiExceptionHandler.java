@@ -32,6 +32,22 @@ public class ApiExceptionHandler {
         return new ResponseEntity<>(apiException, badRequest);
     }
 
+    @ExceptionHandler(value =
+            {
+                    BillNotEnoughMoneyException.class
+            }
+    )
+    public ResponseEntity<Object> handleApiConflictException(RuntimeException e) {
+        HttpStatus conflict = HttpStatus.CONFLICT;
+        ApiException apiException = new ApiException(
+                e.getMessage(),
+                e.getClass(),
+                conflict,
+                ZonedDateTime.now(ZoneId.of("Z"))
+        );
+        return new ResponseEntity<>(apiException, conflict);
+    }
+
     @ExceptionHandler(value =
             {
                     MethodArgumentNotValidException.class
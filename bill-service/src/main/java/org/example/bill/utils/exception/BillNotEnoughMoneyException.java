@@ -0,0 +1,11 @@
+package org.example.bill.utils.exception;
+
+public class BillNotEnoughMoneyException extends RuntimeException {
+
+    public BillNotEnoughMoneyException() {
+    }
+
+    public BillNotEnoughMoneyException(String message) {
+        super(message);
+    }
+}
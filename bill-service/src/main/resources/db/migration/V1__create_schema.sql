@@ -0,0 +1,33 @@
+CREATE SEQUENCE bill_sequence START 1 INCREMENT 50;
+
+CREATE TABLE bill
+(
+    id                BIGINT         NOT NULL PRIMARY KEY,
+    account_id        BIGINT         NOT NULL,
+    amount            NUMERIC(19, 2) NOT NULL,
+    is_default        BOOLEAN        NOT NULL,
+    creation_date     TIMESTAMP      NOT NULL,
+    overdraft_enabled BOOLEAN        NOT NULL
+);
+
+CREATE INDEX bill_account_id_is_default_idx ON bill (account_id, is_default);
+
+-- at most one default bill per account; this is a partial unique index on (account_id) WHERE is_default,
+-- declared as a deferrable exclusion constraint so that it is checked at the end of the statement
+-- and the single UPDATE moving the default flag between two bills does not depend on row order
+ALTER TABLE bill
+    ADD CONSTRAINT bill_account_id_default_unique
+        EXCLUDE USING btree (account_id WITH =) WHERE (is_default)
+        DEFERRABLE INITIALLY IMMEDIATE;
+
+CREATE SEQUENCE outbox_message_sequence START 1 INCREMENT 50;
+
+CREATE TABLE outbox_message
+(
+    id            BIGINT       NOT NULL PRIMARY KEY,
+    exchange      VARCHAR(255) NOT NULL,
+    routing_key   VARCHAR(255) NOT NULL,
+    content_type  VARCHAR(255) NOT NULL,
+    payload       BYTEA        NOT NULL,
+    creation_date TIMESTAMP    NOT NULL
+);
@@ -10,19 +10,22 @@ import org.example.bill.controller.dto.BillRequestDTO;
 import org.example.bill.controller.dto.BillResponseDTO;
 import org.example.bill.entity.Bill;
 import org.example.bill.repository.BillRepository;
-import org.example.bill.rest.AccountServiceClient;
 import org.example.bill.service.BillService;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -55,8 +58,11 @@ class BillControllerTest {
     @Autowired
     private WebApplicationContext context;
 
+    @Autowired
+    private FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter;
+
     @MockBean
-    private AccountServiceClient accountServiceClient;
+    private RabbitTemplate rabbitTemplate;
 
     @BeforeEach
     void setUp() {
@@ -118,6 +124,28 @@ class BillControllerTest {
         assertThat(billRequestDTO.getAmount()).isEqualTo(Objects.requireNonNull(jsonToObject(body)).getAmount());
     }
 
+    @Test
+    @Order(3)
+    void itShouldGetBillWithEtag_andAnswerNotModified_whenEtagMatches() throws Exception {
+        // given
+        MockMvc etagMockMvc = webAppContextSetup(context)
+                .addFilter(etagFilter.getFilter(), etagFilter.getUrlPatterns().toArray(String[]::new))
+                .build();
+        String etag = etagMockMvc.perform(get("/bills/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when
+        ResultActions perform = etagMockMvc
+                .perform(get("/bills/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        assertThat(etag).isNotBlank();
+        perform.andExpect(status().isNotModified());
+    }
+
     @Test
     @Order(4)
     void itShouldUpdateBill() throws Exception {
@@ -222,6 +250,36 @@ class BillControllerTest {
 
     @Test
     @Order(10)
+    void itShouldGetDefaultBillByAccountId() throws Exception {
+        // given
+        // when
+        ResultActions perform = mockMvc
+                .perform(get("/bills/account/1/default")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        MvcResult mvcResult = perform.andExpect(status().isOk()).andReturn();
+        String body = mvcResult.getResponse().getContentAsString();
+        assertThat(Objects.requireNonNull(jsonToObject(body)).getBillId()).isEqualTo(1L);
+    }
+
+    @Test
+    @Order(11)
+    void itShouldNotGetDefaultBillByAccountId_whenAccountDoesNotExist() throws Exception {
+        // given
+        // when
+        ResultActions perform = mockMvc
+                .perform(get("/bills/account/777/default")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        perform.andExpect(status().isBadRequest()).andReturn();
+    }
+
+    @Test
+    @Order(12)
     void itShouldDeleteBill() throws Exception {
         // given
         // when
@@ -235,7 +293,7 @@ class BillControllerTest {
     }
 
     @Test
-    @Order(11)
+    @Order(13)
     void itShouldNotDeleteBill() throws Exception {
         // given
         // when
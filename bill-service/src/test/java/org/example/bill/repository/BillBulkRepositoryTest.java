@@ -0,0 +1,76 @@
+package org.example.bill.repository;
+
+import org.example.bill.entity.Bill;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the bulk statements on PostgreSQL with the Flyway schema, they use PostgreSQL syntax which H2 does not know.
+ * Skipped when Docker is not available.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class BillBulkRepositoryTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private BillRepository underTest;
+
+    @DynamicPropertySource
+    static void postgresDataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @Test
+    void itShouldDeleteByAccountId_andReturnDeletedBills() {
+        // given
+        Bill bill = getBill();
+        Bill notDefaultBill = getBill();
+        notDefaultBill.setDefault(false);
+        Bill otherAccountBill = getBill();
+        otherAccountBill.setAccount(2L);
+        underTest.saveAll(List.of(bill, notDefaultBill, otherAccountBill));
+
+        // when
+        List<Bill> expected = underTest.deleteByAccountIdReturning(bill.getAccount());
+
+        // then
+        assertThat(expected).extracting(Bill::getBillId).containsExactlyInAnyOrder(bill.getBillId(), notDefaultBill.getBillId());
+        assertThat(expected).allMatch(b -> b.getAccount().equals(1L) && b.getAmount().compareTo(new BigDecimal(100)) == 0);
+        assertThat(expected).extracting(Bill::isDefault).containsExactlyInAnyOrder(true, false);
+        assertThat(underTest.findByAccountId(bill.getAccount())).isEmpty();
+        assertThat(underTest.findByAccountId(2L)).hasSize(1);
+    }
+
+    private static Bill getBill() {
+        return Bill.builder()
+                .amount(new BigDecimal(100))
+                .account(1L)
+                .creationDate(OffsetDateTime.now())
+                .isDefault(true)
+                .overdraftEnabled(true)
+                .build();
+    }
+}
@@ -76,6 +76,131 @@ class BillRepositoryTest {
         assertThat(expected.size()).isEqualTo(0);
     }
 
+    @Test
+    void itShouldFindByBillIds() {
+        // given
+        Bill bill = getBill();
+        underTest.save(bill);
+
+        // when
+        List<Bill> expected = underTest.findByBillIds(List.of(bill.getBillId(), 777L));
+
+        // then
+        assertThat(expected).extracting(Bill::getBillId).containsExactly(bill.getBillId());
+    }
+
+    @Test
+    void itShouldFindDefaultByAccountId() {
+        // given
+        Bill bill = getBill();
+        Bill notDefaultBill = getBill();
+        notDefaultBill.setDefault(false);
+        underTest.save(notDefaultBill);
+        underTest.save(bill);
+
+        // when
+        Optional<Bill> expected = underTest.findDefaultByAccountId(bill.getAccount());
+
+        // then
+        assertThat(expected.isPresent()).isTrue();
+        assertThat(expected.get().getBillId()).isEqualTo(bill.getBillId());
+    }
+
+    @Test
+    void itShouldFindDefaultByAccountIds() {
+        // given
+        Bill bill = getBill();
+        Bill otherAccountBill = getBill();
+        otherAccountBill.setAccount(2L);
+        Bill notDefaultBill = getBill();
+        notDefaultBill.setDefault(false);
+        underTest.saveAll(List.of(bill, otherAccountBill, notDefaultBill));
+
+        // when
+        List<Bill> expected = underTest.findDefaultByAccountIds(List.of(1L, 2L, 777L));
+
+        // then
+        assertThat(expected).extracting(Bill::getBillId).containsExactlyInAnyOrder(bill.getBillId(), otherAccountBill.getBillId());
+    }
+
+    @Test
+    void itShouldNotFindDefaultByAccountId_whenAccountHasNoDefaultBill() {
+        // given
+        Bill bill = getBill();
+        bill.setDefault(false);
+        underTest.save(bill);
+
+        // when
+        Optional<Bill> expected = underTest.findDefaultByAccountId(bill.getAccount());
+
+        // then
+        assertThat(expected.isPresent()).isFalse();
+    }
+
+    @Test
+    void itShouldAdjustAmount() {
+        // given
+        Bill bill = getBill();
+        bill.setOverdraftEnabled(false);
+        underTest.save(bill);
+
+        // when
+        int updated = underTest.adjustAmount(bill.getBillId(), new BigDecimal(-40));
+
+        // then
+        assertThat(updated).isEqualTo(1);
+        assertThat(underTest.findById(bill.getBillId()).get().getAmount()).isEqualByComparingTo(new BigDecimal(60));
+    }
+
+    @Test
+    void itShouldNotAdjustAmount_whenBillHasNotEnoughMoney() {
+        // given
+        Bill bill = getBill();
+        bill.setOverdraftEnabled(false);
+        underTest.save(bill);
+
+        // when
+        int updated = underTest.adjustAmount(bill.getBillId(), new BigDecimal(-140));
+
+        // then
+        assertThat(updated).isEqualTo(0);
+        assertThat(underTest.findById(bill.getBillId()).get().getAmount()).isEqualByComparingTo(new BigDecimal(100));
+    }
+
+    @Test
+    void itShouldAdjustAmount_whenOverdraftIsEnabled() {
+        // given
+        Bill bill = getBill();
+        underTest.save(bill);
+
+        // when
+        int updated = underTest.adjustAmount(bill.getBillId(), new BigDecimal(-140));
+
+        // then
+        assertThat(updated).isEqualTo(1);
+        assertThat(underTest.findById(bill.getBillId()).get().getAmount()).isEqualByComparingTo(new BigDecimal(-40));
+    }
+
+    @Test
+    void itShouldMakeDefault_andResetPreviousDefaultBill() {
+        // given
+        Bill previousDefaultBill = getBill();
+        Bill bill = getBill();
+        bill.setDefault(false);
+        Bill otherAccountBill = getBill();
+        otherAccountBill.setAccount(2L);
+        underTest.saveAll(List.of(previousDefaultBill, bill, otherAccountBill));
+
+        // when
+        int updated = underTest.makeDefault(bill.getAccount(), bill.getBillId());
+
+        // then
+        assertThat(updated).isEqualTo(2);
+        assertThat(underTest.findById(bill.getBillId()).get().isDefault()).isTrue();
+        assertThat(underTest.findById(previousDefaultBill.getBillId()).get().isDefault()).isFalse();
+        assertThat(underTest.findById(otherAccountBill.getBillId()).get().isDefault()).isTrue();
+    }
+
     private static Bill getBill() {
         return Bill.builder()
                 .amount(new BigDecimal(100))
@@ -0,0 +1,39 @@
+package org.example.bill.service;
+
+import org.example.bill.rest.AccountDeletedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountDeletedListenerTest {
+
+    private AccountDeletedListener underTest;
+
+    @Mock
+    private BillService billService;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new AccountDeletedListener(billService);
+    }
+
+    @Test
+    void itShouldDeleteAccountBills() {
+        // given
+        Long accountId = 1L;
+        when(billService.deleteBillsByAccountId(accountId)).thenReturn(List.of());
+
+        // when
+        underTest.onAccountDeleted(new AccountDeletedEvent(accountId));
+
+        // then
+        verify(billService, times(1)).deleteBillsByAccountId(accountId);
+    }
+}
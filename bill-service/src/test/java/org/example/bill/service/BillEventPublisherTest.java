@@ -0,0 +1,38 @@
+package org.example.bill.service;
+
+import org.example.bill.config.RabbitMQConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BillEventPublisherTest {
+
+    private BillEventPublisher underTest;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new BillEventPublisher(outboxService);
+    }
+
+    @Test
+    void itShouldSaveBillChangedEventToOutbox() {
+        // given
+        BillChangedEvent event = new BillChangedEvent(List.of(1L, 2L));
+
+        // when
+        underTest.onBillChanged(event);
+
+        // then
+        verify(outboxService, times(1)).saveMessage(RabbitMQConfig.FANOUT_EXCHANGE_BILL_CHANGED, "", event);
+    }
+}
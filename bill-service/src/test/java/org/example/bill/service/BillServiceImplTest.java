@@ -1,27 +1,35 @@
 package org.example.bill.service;
 
+import org.example.bill.config.RabbitMQConfig;
 import org.example.bill.entity.Bill;
+import org.example.bill.utils.exception.BillNotEnoughMoneyException;
 import org.example.bill.utils.exception.BillNotFoundException;
 import org.example.bill.repository.BillRepository;
-import org.example.bill.rest.AccountServiceClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static java.lang.String.format;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,13 +42,18 @@ class BillServiceImplTest {
     private BillRepository billRepository;
 
     @Mock
-    private AccountServiceClient accountServiceClient;
+    private OutboxService outboxService;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
 
     private static final String BILL_NOT_FOUND_BY_ID = "Bill with id %d is not found";
+    private static final String BILL_NOT_ENOUGH_MONEY = "Bill with id %d have not enough money";
+    private static final String DEFAULT_BILL_NOT_FOUND = "Unable to find default bill for account with id %d";
 
     @BeforeEach
     void setUp() {
-        underTest = new BillServiceImpl(billRepository, accountServiceClient);
+        underTest = new BillServiceImpl(billRepository, outboxService, applicationEventPublisher);
     }
 
     @Test
@@ -60,6 +73,19 @@ class BillServiceImplTest {
         assertThat(value).isEqualTo(billId);
     }
 
+    @Test
+    void itShouldGetBillsByIdsWithOneQuery() {
+        // given
+        Bill bill = getBill();
+        when(billRepository.findByBillIds(List.of(bill.getBillId(), 99L))).thenReturn(List.of(bill));
+
+        // when
+        List<Bill> expected = underTest.getBillsByIds(List.of(bill.getBillId(), 99L));
+
+        // then
+        assertThat(expected).containsExactly(bill);
+    }
+
     @Test
     void itShouldNotGetBillById_whenAccountDoesNotExist() {
         // given
@@ -85,10 +111,13 @@ class BillServiceImplTest {
 
         // then
         ArgumentCaptor<Bill> captor = ArgumentCaptor.forClass(Bill.class);
-        verify(accountServiceClient).addBillToAccount(bill.getAccount(), bill.getBillId());
+        ArgumentCaptor<BillCreatedEvent> eventCaptor = ArgumentCaptor.forClass(BillCreatedEvent.class);
+        verify(outboxService).saveMessage(eq(RabbitMQConfig.TOPIC_EXCHANGE_BILL), eq(RabbitMQConfig.ROUTING_KEY_BILL_CREATED), eventCaptor.capture());
         verify(billRepository).save(captor.capture());
         Bill value = captor.getValue();
         assertThat(value).isEqualTo(bill);
+        assertThat(eventCaptor.getValue().getBillId()).isEqualTo(bill.getBillId());
+        assertThat(eventCaptor.getValue().getAccountId()).isEqualTo(bill.getAccount());
     }
 
     @Test
@@ -132,6 +161,206 @@ class BillServiceImplTest {
         verify(billRepository, times(0)).save(newBill);
     }
 
+    @Test
+    void itShouldAdjustBill() {
+        // given
+        Bill bill = getBill();
+        Long billId = bill.getBillId();
+        BigDecimal delta = new BigDecimal(-50);
+        when(billRepository.adjustAmount(billId, delta)).thenReturn(1);
+        when(billRepository.findById(billId)).thenReturn(Optional.of(bill));
+
+        // when
+        Bill adjustedBill = underTest.adjustBill(billId, delta);
+
+        // then
+        verify(billRepository).adjustAmount(billId, delta);
+        verify(billRepository, times(0)).save(any());
+        assertThat(adjustedBill).isEqualTo(bill);
+        ArgumentCaptor<BillChangedEvent> eventCaptor = ArgumentCaptor.forClass(BillChangedEvent.class);
+        verify(applicationEventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getBillIds()).containsExactly(billId);
+    }
+
+    @Test
+    void itShouldNotAdjustBill_whenBillDoesNotExistById() {
+        // given
+        Long billId = 777L;
+        BigDecimal delta = new BigDecimal(50);
+        when(billRepository.adjustAmount(billId, delta)).thenReturn(0);
+        when(billRepository.existsById(billId)).thenReturn(false);
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.adjustBill(billId, delta))
+                .isInstanceOf(BillNotFoundException.class)
+                .hasMessageContaining(BILL_NOT_FOUND_BY_ID, billId);
+    }
+
+    @Test
+    void itShouldNotAdjustBill_whenBillHasNotEnoughMoney() {
+        // given
+        Bill bill = getBill();
+        Long billId = bill.getBillId();
+        BigDecimal delta = new BigDecimal(-500);
+        when(billRepository.adjustAmount(billId, delta)).thenReturn(0);
+        when(billRepository.existsById(billId)).thenReturn(true);
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.adjustBill(billId, delta))
+                .isInstanceOf(BillNotEnoughMoneyException.class)
+                .hasMessageContaining(BILL_NOT_ENOUGH_MONEY, billId);
+        verify(billRepository, times(0)).findById(billId);
+    }
+
+    @Test
+    void itShouldAdjustBills_inAscendingBillIdOrder_andSkipNotAdjusted() {
+        // given
+        Bill bill = getBill();
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        deltas.put(3L, new BigDecimal(10));
+        deltas.put(bill.getBillId(), new BigDecimal(20));
+        when(billRepository.adjustAmount(bill.getBillId(), new BigDecimal(20))).thenReturn(1);
+        when(billRepository.adjustAmount(3L, new BigDecimal(10))).thenReturn(0);
+        when(billRepository.findAllById(List.of(bill.getBillId()))).thenReturn(List.of(bill));
+
+        // when
+        List<Bill> expected = underTest.adjustBills(deltas);
+
+        // then
+        InOrder inOrder = inOrder(billRepository);
+        inOrder.verify(billRepository).adjustAmount(bill.getBillId(), new BigDecimal(20));
+        inOrder.verify(billRepository).adjustAmount(3L, new BigDecimal(10));
+        assertThat(expected).containsExactly(bill);
+        ArgumentCaptor<BillChangedEvent> eventCaptor = ArgumentCaptor.forClass(BillChangedEvent.class);
+        verify(applicationEventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getBillIds()).containsExactly(bill.getBillId());
+    }
+
+    @Test
+    void itShouldSettleBills_inAscendingBillIdOrder() {
+        // given
+        Bill bill = getBill();
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        deltas.put(3L, new BigDecimal(30));
+        deltas.put(bill.getBillId(), new BigDecimal(-30));
+        when(billRepository.findAllById(Map.of(bill.getBillId(), 1L).keySet())).thenReturn(List.of(bill));
+        when(billRepository.adjustAmount(anyLong(), any())).thenReturn(1);
+        when(billRepository.findAllById(deltas.keySet())).thenReturn(List.of(bill));
+
+        // when
+        List<Bill> expected = underTest.settleBills(deltas, Map.of(bill.getBillId(), 1L));
+
+        // then
+        InOrder inOrder = inOrder(billRepository);
+        inOrder.verify(billRepository).adjustAmount(bill.getBillId(), new BigDecimal(-30));
+        inOrder.verify(billRepository).adjustAmount(3L, new BigDecimal(30));
+        assertThat(expected).containsExactly(bill);
+    }
+
+    @Test
+    void itShouldNotSettleBills_whenBillBelongsToOtherAccount() {
+        // given
+        Bill bill = getBill();
+        Map<Long, Long> billAccounts = Map.of(bill.getBillId(), 2L);
+        when(billRepository.findAllById(billAccounts.keySet())).thenReturn(List.of(bill));
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.settleBills(Map.of(bill.getBillId(), new BigDecimal(-30)), billAccounts))
+                .isInstanceOf(BillNotFoundException.class)
+                .hasMessageContaining("Bill with id 1 is not found for account with id 2");
+        verify(billRepository, never()).adjustAmount(anyLong(), any());
+    }
+
+    @Test
+    void itShouldNotSettleBills_whenBillHasNotEnoughMoney() {
+        // given
+        Map<Long, BigDecimal> deltas = Map.of(1L, new BigDecimal(-500));
+        when(billRepository.adjustAmount(1L, new BigDecimal(-500))).thenReturn(0);
+        when(billRepository.existsById(1L)).thenReturn(true);
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.settleBills(deltas, Map.of()))
+                .isInstanceOf(BillNotEnoughMoneyException.class)
+                .hasMessageContaining(format(BILL_NOT_ENOUGH_MONEY, 1L));
+    }
+
+    @Test
+    void itShouldTransferBetweenBills_inAscendingBillIdOrder() {
+        // given
+        Bill fromBill = getBill();
+        fromBill.setBillId(2L);
+        Long toBillId = 1L;
+        BigDecimal amount = new BigDecimal(50);
+        when(billRepository.findById(fromBill.getBillId())).thenReturn(Optional.of(fromBill));
+        when(billRepository.adjustAmount(anyLong(), any())).thenReturn(1);
+
+        // when
+        Long expected = underTest.transferBetweenBills(fromBill.getAccount(), fromBill.getBillId(), 2L, toBillId, amount);
+
+        // then
+        InOrder inOrder = inOrder(billRepository);
+        inOrder.verify(billRepository).adjustAmount(toBillId, amount);
+        inOrder.verify(billRepository).adjustAmount(fromBill.getBillId(), amount.negate());
+        assertThat(expected).isEqualTo(toBillId);
+    }
+
+    @Test
+    void itShouldTransferToDefaultBill_whenBillToIsNotSet() {
+        // given
+        Bill fromBill = getBill();
+        Bill toBill = getBill();
+        toBill.setBillId(3L);
+        toBill.setAccount(2L);
+        BigDecimal amount = new BigDecimal(50);
+        when(billRepository.findById(fromBill.getBillId())).thenReturn(Optional.of(fromBill));
+        when(billRepository.findDefaultByAccountId(2L)).thenReturn(Optional.of(toBill));
+        when(billRepository.adjustAmount(anyLong(), any())).thenReturn(1);
+
+        // when
+        Long expected = underTest.transferBetweenBills(fromBill.getAccount(), fromBill.getBillId(), 2L, null, amount);
+
+        // then
+        InOrder inOrder = inOrder(billRepository);
+        inOrder.verify(billRepository).adjustAmount(fromBill.getBillId(), amount.negate());
+        inOrder.verify(billRepository).adjustAmount(toBill.getBillId(), amount);
+        assertThat(expected).isEqualTo(toBill.getBillId());
+    }
+
+    @Test
+    void itShouldNotTransferBetweenBills_whenBillFromBelongsToOtherAccount() {
+        // given
+        Bill fromBill = getBill();
+        when(billRepository.findById(fromBill.getBillId())).thenReturn(Optional.of(fromBill));
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.transferBetweenBills(777L, fromBill.getBillId(), 2L, 3L, new BigDecimal(50)))
+                .isInstanceOf(BillNotFoundException.class);
+        verify(billRepository, times(0)).adjustAmount(anyLong(), any());
+    }
+
+    @Test
+    void itShouldNotTransferBetweenBills_whenBillFromHasNotEnoughMoney() {
+        // given
+        Bill fromBill = getBill();
+        Long toBillId = 3L;
+        BigDecimal amount = new BigDecimal(500);
+        when(billRepository.findById(fromBill.getBillId())).thenReturn(Optional.of(fromBill));
+        when(billRepository.adjustAmount(fromBill.getBillId(), amount.negate())).thenReturn(0);
+        when(billRepository.existsById(fromBill.getBillId())).thenReturn(true);
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.transferBetweenBills(fromBill.getAccount(), fromBill.getBillId(), 2L, toBillId, amount))
+                .isInstanceOf(BillNotEnoughMoneyException.class)
+                .hasMessageContaining(BILL_NOT_ENOUGH_MONEY, fromBill.getBillId());
+        verify(billRepository, times(0)).adjustAmount(toBillId, amount);
+    }
+
     @Test
     void itShouldDeleteBill() {
         // given
@@ -144,7 +373,10 @@ class BillServiceImplTest {
         // then
         ArgumentCaptor<Long> captor = ArgumentCaptor.forClass(Long.class);
         verify(billRepository).findById(captor.capture());
-        verify(accountServiceClient).removeBillFromAccount(bill.getAccount(), bill.getBillId());
+        ArgumentCaptor<BillDeletedEvent> eventCaptor = ArgumentCaptor.forClass(BillDeletedEvent.class);
+        verify(outboxService).saveMessage(eq(RabbitMQConfig.TOPIC_EXCHANGE_BILL), eq(RabbitMQConfig.ROUTING_KEY_BILL_DELETED), eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getBillId()).isEqualTo(bill.getBillId());
+        assertThat(eventCaptor.getValue().getAccountId()).isEqualTo(bill.getAccount());
         Long value= captor.getValue();
         assertThat(value).isEqualTo(bill.getBillId());
         assertThat(deletedBill).isEqualTo(bill);
@@ -164,6 +396,25 @@ class BillServiceImplTest {
                 .hasMessageContaining(BILL_NOT_FOUND_BY_ID, billId);
     }
 
+    @Test
+    void itShouldDeleteBillsByAccountId() {
+        // given
+        Bill bill = getBill();
+        Long account = bill.getAccount();
+        when(billRepository.deleteByAccountIdReturning(account)).thenReturn(List.of(bill));
+
+        // when
+        List<Bill> expected = underTest.deleteBillsByAccountId(account);
+
+        // then
+        verify(billRepository, times(1)).deleteByAccountIdReturning(account);
+        verify(billRepository, never()).deleteAll(any());
+        assertThat(expected).containsExactly(bill);
+        ArgumentCaptor<BillChangedEvent> eventCaptor = ArgumentCaptor.forClass(BillChangedEvent.class);
+        verify(applicationEventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getBillIds()).containsExactly(bill.getBillId());
+    }
+
     @Test
     void itShouldGetBillsByAccountId() {
         // given
@@ -187,31 +438,102 @@ class BillServiceImplTest {
     @Test
     void itShouldMarkBillAsDefault() {
         // given
-        Bill bill1 = getBill();
-        Bill bill2 = getBill();
-        bill2.setDefault(false);
-
-        List<Bill> bills = new ArrayList<>();
-        bills.add(bill1);
-        bills.add(bill2);
+        Bill bill = getBill();
+        bill.setDefault(false);
 
-        Long account = bill1.getAccount();
-        Long billId = bill2.getBillId();
-        when(billRepository.findById(billId)).thenReturn(Optional.of(bill2));
-        when(billRepository.findByAccountId(account)).thenReturn(bills);
-        when(billRepository.save(bill2)).thenReturn(bill2);
+        Long account = bill.getAccount();
+        Long billId = bill.getBillId();
+        when(billRepository.findById(billId)).thenReturn(Optional.of(bill));
+        when(billRepository.makeDefault(account, billId)).thenReturn(2);
 
         // when
         Bill expected = underTest.makeBillDefault(billId);
 
         // then
-        ArgumentCaptor<Long> captor = ArgumentCaptor.forClass(Long.class);
-        verify(billRepository).findByAccountId(captor.capture());
-        Long value= captor.getValue();
-        assertThat(value).isEqualTo(bill2.getBillId());
-        assertThat(expected).isEqualTo(bill2);
-        assertThat(bill1.isDefault()).isFalse();
-        assertThat(bill2.isDefault()).isTrue();
+        verify(billRepository, times(1)).makeDefault(account, billId);
+        verify(billRepository, never()).findByAccountId(anyLong());
+        verify(billRepository, never()).saveAll(any());
+        assertThat(expected).isEqualTo(bill);
+        assertThat(expected.isDefault()).isTrue();
+    }
+
+    @Test
+    void itShouldNotifyPreviousAndNewDefaultBill_whenBillMarkedAsDefault() {
+        // given
+        Bill bill = getBill();
+        bill.setDefault(false);
+        Bill previousDefaultBill = getBill();
+        previousDefaultBill.setBillId(5L);
+        when(billRepository.findById(bill.getBillId())).thenReturn(Optional.of(bill));
+        when(billRepository.findDefaultByAccountId(bill.getAccount())).thenReturn(Optional.of(previousDefaultBill));
+        when(billRepository.makeDefault(bill.getAccount(), bill.getBillId())).thenReturn(2);
+
+        // when
+        underTest.makeBillDefault(bill.getBillId());
+
+        // then
+        ArgumentCaptor<BillChangedEvent> eventCaptor = ArgumentCaptor.forClass(BillChangedEvent.class);
+        verify(applicationEventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getBillIds()).containsExactly(5L, bill.getBillId());
+    }
+
+    @Test
+    void itShouldGetDefaultBill() {
+        // given
+        Bill bill = getBill();
+        Long accountId = bill.getAccount();
+        when(billRepository.findDefaultByAccountId(accountId)).thenReturn(Optional.of(bill));
+
+        // when
+        Bill expected = underTest.getDefaultBill(accountId);
+
+        // then
+        verify(billRepository, times(1)).findDefaultByAccountId(accountId);
+        assertThat(expected).isEqualTo(bill);
+    }
+
+    @Test
+    void itShouldGetCurrentDefaultBill_whenAmountChangedAfterPreviousRead() {
+        // given
+        Bill bill = getBill();
+        Bill adjustedBill = getBill();
+        adjustedBill.setAmount(new BigDecimal(150));
+        Long accountId = bill.getAccount();
+        when(billRepository.findDefaultByAccountId(accountId)).thenReturn(Optional.of(bill), Optional.of(adjustedBill));
+
+        // when
+        underTest.getDefaultBill(accountId);
+        Bill expected = underTest.getDefaultBill(accountId);
+
+        // then
+        verify(billRepository, times(2)).findDefaultByAccountId(accountId);
+        assertThat(expected.getAmount()).isEqualByComparingTo(new BigDecimal(150));
+    }
+
+    @Test
+    void itShouldGetDefaultBills() {
+        // given
+        Bill bill = getBill();
+        when(billRepository.findDefaultByAccountIds(List.of(bill.getAccount(), 2L))).thenReturn(List.of(bill));
+
+        // when
+        List<Bill> expected = underTest.getDefaultBills(List.of(bill.getAccount(), 2L));
+
+        // then
+        assertThat(expected).containsExactly(bill);
+    }
+
+    @Test
+    void itShouldNotGetDefaultBill_whenAccountHasNoDefaultBill() {
+        // given
+        Long accountId = 1L;
+        when(billRepository.findDefaultByAccountId(accountId)).thenReturn(Optional.empty());
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.getDefaultBill(accountId))
+                .isInstanceOf(BillNotFoundException.class)
+                .hasMessageContaining(format(DEFAULT_BILL_NOT_FOUND, accountId));
     }
 
     @Test
@@ -229,7 +551,7 @@ class BillServiceImplTest {
                 .isInstanceOf(BillNotFoundException.class)
                 .hasMessageContaining(BILL_NOT_FOUND_BY_ID, billId);
         verifyNoMoreInteractions(billRepository);
-        verifyNoMoreInteractions(accountServiceClient);
+        verifyNoMoreInteractions(outboxService);
     }
 
     private Bill getBill() {
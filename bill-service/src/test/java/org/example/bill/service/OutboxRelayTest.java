@@ -0,0 +1,93 @@
+package org.example.bill.service;
+
+import org.example.bill.entity.OutboxMessage;
+import org.example.bill.repository.OutboxMessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private OutboxRelay outboxRelay;
+
+    @Mock
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private RabbitOperations rabbitOperations;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxMessageRepository, rabbitTemplate, 500, 5000);
+    }
+
+    @Test
+    void itShouldSendBatchAndDeleteMessages() {
+        // given
+        List<OutboxMessage> messages = List.of(createOutboxMessage(1L), createOutboxMessage(2L));
+        when(outboxMessageRepository.findBatchForUpdate(any())).thenReturn(messages);
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(rabbitOperations));
+
+        // when
+        int sent = outboxRelay.relay();
+
+        // then
+        assertThat(sent).isEqualTo(2);
+        verify(rabbitOperations, times(2)).send(eq("exchange"), eq("key"), any(Message.class));
+        verify(rabbitOperations, times(1)).waitForConfirmsOrDie(5000);
+        verify(outboxMessageRepository, times(1)).deleteByMessageIds(List.of(1L, 2L));
+    }
+
+    @Test
+    void itShouldNotDeleteMessages_whenBrokerDoesNotConfirm() {
+        // given
+        when(outboxMessageRepository.findBatchForUpdate(any())).thenReturn(List.of(createOutboxMessage(1L)));
+        when(rabbitTemplate.invoke(any())).thenThrow(new AmqpException("nack"));
+
+        // when
+        // then
+        assertThatThrownBy(() -> outboxRelay.relay()).isInstanceOf(AmqpException.class);
+        verify(outboxMessageRepository, times(0)).deleteByMessageIds(anyList());
+    }
+
+    @Test
+    void itShouldDoNothing_whenOutboxIsEmpty() {
+        // given
+        when(outboxMessageRepository.findBatchForUpdate(any())).thenReturn(List.of());
+
+        // when
+        int sent = outboxRelay.relay();
+
+        // then
+        assertThat(sent).isEqualTo(0);
+        verify(rabbitTemplate, times(0)).invoke(any());
+    }
+
+    private OutboxMessage createOutboxMessage(Long messageId) {
+        OutboxMessage outboxMessage = new OutboxMessage("exchange", "key", MessageProperties.CONTENT_TYPE_JSON, "{}".getBytes(), OffsetDateTime.now());
+        outboxMessage.setMessageId(messageId);
+        return outboxMessage;
+    }
+}
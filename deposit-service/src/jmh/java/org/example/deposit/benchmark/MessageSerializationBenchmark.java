@@ -0,0 +1,48 @@
+package org.example.deposit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.deposit.controller.dto.DepositResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare serialization of deposit message with a new ObjectMapper per call and with the shared converter.
+ * Run with {@code ./gradlew :deposit-service:jmh}, gc profiler shows allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageSerializationBenchmark {
+
+    private DepositResponseDTO depositResponseDTO;
+
+    private MessageConverter messageConverter;
+
+    @Setup
+    public void setUp() {
+        depositResponseDTO = new DepositResponseDTO(BigDecimal.valueOf(100), "dmitry@gmail.com");
+        messageConverter = new Jackson2JsonMessageConverter(new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Benchmark
+    public byte[] newObjectMapperPerCall() throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        return objectMapper.writeValueAsString(depositResponseDTO).getBytes();
+    }
+
+    @Benchmark
+    public Message sharedMessageConverter() {
+        return messageConverter.toMessage(depositResponseDTO, new MessageProperties());
+    }
+}
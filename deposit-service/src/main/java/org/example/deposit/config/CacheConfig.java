@@ -0,0 +1,14 @@
+package org.example.deposit.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches are created by Spring Boot from spring.cache properties, Caffeine spec sets size, TTL and statistics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ACCOUNTS_CACHE = "accounts";
+}
@@ -0,0 +1,34 @@
+package org.example.deposit.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    public static final String DOWNSTREAM_EXECUTOR = "downstreamExecutor";
+
+    /**
+     * Bounded executor for independent calls to other services made in parallel.
+     * Sleuth wraps executor beans, so trace context is passed to its threads.
+     * When the queue is full the call runs on the caller thread.
+     */
+    @Bean(name = DOWNSTREAM_EXECUTOR)
+    public ThreadPoolTaskExecutor downstreamExecutor(
+            @Value("${deposit.executor.core-pool-size:16}") int corePoolSize,
+            @Value("${deposit.executor.max-pool-size:64}") int maxPoolSize,
+            @Value("${deposit.executor.queue-capacity:256}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("downstream-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
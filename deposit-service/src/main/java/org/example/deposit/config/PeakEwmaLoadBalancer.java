@@ -0,0 +1,167 @@
+package org.example.deposit.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Load balancer that sends a request to the instance with the lower peak-EWMA latency times outstanding requests
+ * of two randomly picked instances (power of two choices).
+ * <p>
+ * Latency and outstanding requests are recorded through the load balancer lifecycle, which Feign clients,
+ * load-balanced WebClients and the gateway call around every request. A slower response raises the cost
+ * of an instance at once, faster responses and idle time lower it gradually, so a slow instance gets
+ * little traffic and is probed again after its cost has decayed.
+ */
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+        LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    /**
+     * Time for the recorded latency to decay by a factor of e.
+     */
+    static final long DECAY_TIME_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * Latency recorded for a failed request and assumed for an instance with requests in flight but
+     * no response yet, so an instance failing fast or not measured yet does not look fast.
+     */
+    static final long PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final LongSupplier clock;
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider) {
+        this(serviceInstanceListSupplierProvider, System::nanoTime);
+    }
+
+    PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider, LongSupplier clock) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        if (stats.size() > instances.size()) {
+            Set<String> keys = instances.stream().map(PeakEwmaLoadBalancer::key).collect(Collectors.toSet());
+            stats.keySet().retainAll(keys);
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        long now = clock.getAsLong();
+        ServiceInstance firstInstance = instances.get(first);
+        ServiceInstance secondInstance = instances.get(second);
+        return new DefaultResponse(statsOf(firstInstance).cost(now) <= statsOf(secondInstance).cost(now) ? firstInstance : secondInstance);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext) {
+            ((TimedRequestContext) request.getContext()).setRequestStartTime(clock.getAsLong());
+        }
+        statsOf(lbResponse.getServer()).outstanding.incrementAndGet();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceStats instanceStats = stats.get(key(lbResponse.getServer()));
+        if (instanceStats == null) {
+            return;
+        }
+        instanceStats.outstanding.decrementAndGet();
+        Object context = completionContext.getLoadBalancerRequest() == null ? null : completionContext.getLoadBalancerRequest().getContext();
+        if (!(context instanceof TimedRequestContext)) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long latency = now - ((TimedRequestContext) context).getRequestStartTime();
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            latency = Math.max(latency, PENALTY_NANOS);
+        }
+        instanceStats.observe(latency, now);
+    }
+
+    private InstanceStats statsOf(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), key -> new InstanceStats(clock.getAsLong()));
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    private static final class InstanceStats {
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private double latency;
+        private long stamp;
+
+        private InstanceStats(long now) {
+            this.stamp = now;
+        }
+
+        synchronized void observe(long observed, long now) {
+            if (observed > latency) {
+                latency = observed;
+            } else {
+                double weight = Math.exp(-(double) Math.max(now - stamp, 0) / DECAY_TIME_NANOS);
+                latency = latency * weight + observed * (1 - weight);
+            }
+            stamp = now;
+        }
+
+        synchronized double cost(long now) {
+            double decayed = latency * Math.exp(-(double) Math.max(now - stamp, 0) / DECAY_TIME_NANOS);
+            int pending = outstanding.get();
+            if (decayed == 0 && pending > 0) {
+                decayed = PENALTY_NANOS;
+            }
+            return decayed * (pending + 1);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.deposit.config;
+
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load balancer of every client, registered by {@link LoadBalancerConfig} in the child context of each service.
+ * Not a {@code @Configuration} so that it is not picked up by the application context.
+ */
+public class PeakEwmaLoadBalancerConfiguration {
+
+    @Bean
+    public PeakEwmaLoadBalancer peakEwmaLoadBalancer(Environment environment, LoadBalancerClientFactory loadBalancerClientFactory) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PeakEwmaLoadBalancer(loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class));
+    }
+}
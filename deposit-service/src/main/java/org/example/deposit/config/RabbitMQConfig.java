@@ -0,0 +1,49 @@
+package org.example.deposit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    public static final String FANOUT_EXCHANGE_ACCOUNT_CHANGED = "js.account.changed.exchange";
+
+    /**
+     * Converter for RabbitMQ messages, writes JSON bytes with the application ObjectMapper.
+     * Also used by RabbitTemplate. Incoming messages are read into listener parameter type.
+     */
+    @Bean
+    public MessageConverter messageConverter(ObjectMapper objectMapper) {
+        Jackson2JsonMessageConverter messageConverter = new Jackson2JsonMessageConverter(objectMapper);
+        messageConverter.setAlwaysConvertToInferredType(true);
+        return messageConverter;
+    }
+
+    @Bean
+    public FanoutExchange accountChangedExchange() {
+        return new FanoutExchange(FANOUT_EXCHANGE_ACCOUNT_CHANGED);
+    }
+
+    /**
+     * Every instance has its own queue, so every instance drops its own cached account.
+     */
+    @Bean
+    public Queue accountChangedQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding accountChangedBinding() {
+        return BindingBuilder
+                .bind(accountChangedQueue())
+                .to(accountChangedExchange());
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.deposit.config;
+
+import feign.Capability;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.deposit.rest.SingleFlightCapability;
+import org.example.deposit.rest.SingleFlightClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SingleFlightConfig {
+
+    /**
+     * Concurrent identical GET requests of Feign clients share one call, see {@link SingleFlightClient}.
+     * During payroll bursts many deposits read the same bill and account at once.
+     */
+    @Bean
+    public Capability singleFlightCapability(MeterRegistry meterRegistry) {
+        return new SingleFlightCapability(meterRegistry);
+    }
+}
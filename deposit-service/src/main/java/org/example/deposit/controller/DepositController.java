@@ -1,25 +1,108 @@
 package org.example.deposit.controller;
 
-import org.example.deposit.controller.dto.DepositRequestDTO;
-import org.example.deposit.controller.dto.DepositResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.example.deposit.controller.dto.*;
+import org.example.deposit.repository.DepositHistoryFilter;
+import org.example.deposit.service.DepositBulkService;
+import org.example.deposit.service.DepositHistoryService;
 import org.example.deposit.service.DepositService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 @RestController
 public class DepositController {
 
     private final DepositService depositService;
 
+    private final DepositBulkService depositBulkService;
+
+    private final DepositHistoryService depositHistoryService;
+
+    private final ObjectWriter historyWriter;
+
     @Autowired
-    public DepositController(DepositService depositService) {
+    public DepositController(
+            DepositService depositService,
+            DepositBulkService depositBulkService,
+            DepositHistoryService depositHistoryService,
+            ObjectMapper objectMapper
+    ) {
         this.depositService = depositService;
+        this.depositBulkService = depositBulkService;
+        this.depositHistoryService = depositHistoryService;
+        this.historyWriter = objectMapper.writerFor(DepositHistoryDTO.class);
     }
 
     @PostMapping("/deposits")
     public DepositResponseDTO deposit(@RequestBody DepositRequestDTO depositRequestDTO) {
         return depositService.deposit(depositRequestDTO.getAccountId(), depositRequestDTO.getBillId(), depositRequestDTO.getAmount());
     }
+
+    /**
+     * Accept many deposits in one request.
+     *
+     * @param depositRequestDTOS deposits, each one to bill or to account default bill
+     * @return result for every deposit in request order
+     */
+    @PostMapping("/deposits/bulk")
+    public List<DepositBulkItemResponseDTO> depositAll(@RequestBody List<DepositRequestDTO> depositRequestDTOS) {
+        return depositBulkService.depositAll(depositRequestDTOS);
+    }
+
+    /**
+     * Obtain deposit history page by page from new to old.
+     *
+     * @param depositHistoryRequestDTO filter by bill, account, email and creation date range
+     * @param cursor                   next cursor of the previous page, not set for the first page
+     * @param limit                    page size
+     * @return page with deposits and cursor of the next page
+     */
+    @GetMapping("/deposits/history")
+    public DepositHistoryPageDTO getHistory(
+            DepositHistoryRequestDTO depositHistoryRequestDTO,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit
+    ) {
+        return depositHistoryService.getHistory(toFilter(depositHistoryRequestDTO), cursor, limit);
+    }
+
+    /**
+     * Stream whole deposit history from new to old as newline delimited JSON.
+     *
+     * @param depositHistoryRequestDTO filter by bill, account, email and creation date range
+     * @return one JSON deposit per line
+     */
+    @GetMapping(value = "/deposits/history/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamHistory(DepositHistoryRequestDTO depositHistoryRequestDTO) {
+        DepositHistoryFilter filter = toFilter(depositHistoryRequestDTO);
+        StreamingResponseBody body = outputStream -> depositHistoryService.streamHistory(filter, deposit -> {
+            try {
+                outputStream.write(historyWriter.writeValueAsBytes(deposit));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private static DepositHistoryFilter toFilter(DepositHistoryRequestDTO depositHistoryRequestDTO) {
+        return DepositHistoryFilter.builder()
+                .billId(depositHistoryRequestDTO.getBillId())
+                .accountId(depositHistoryRequestDTO.getAccountId())
+                .email(depositHistoryRequestDTO.getEmail())
+                .from(depositHistoryRequestDTO.getFrom())
+                .to(depositHistoryRequestDTO.getTo())
+                .build();
+    }
 }
@@ -0,0 +1,31 @@
+package org.example.deposit.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Result of one deposit from bulk request, error is set when deposit is not accepted.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DepositBulkItemResponseDTO {
+    private Long billId;
+    private BigDecimal amount;
+    private String email;
+    private boolean accepted;
+    private String error;
+
+    public static DepositBulkItemResponseDTO accepted(Long billId, BigDecimal amount, String email) {
+        return new DepositBulkItemResponseDTO(billId, amount, email, true, null);
+    }
+
+    public static DepositBulkItemResponseDTO rejected(Long billId, BigDecimal amount, String error) {
+        return new DepositBulkItemResponseDTO(billId, amount, null, false, error);
+    }
+}
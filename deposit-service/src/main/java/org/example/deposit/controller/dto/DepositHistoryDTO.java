@@ -1,22 +1,22 @@
-package org.example.account.rest;
-
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-
-import java.math.BigDecimal;
-import java.time.OffsetDateTime;
-
-@Getter
-@Builder
-@AllArgsConstructor
-@NoArgsConstructor
-public class BillResponseDTO {
-    private Long billId;
-    private BigDecimal amount;
-    private boolean isDefault;
-    private OffsetDateTime creationDate;
-    private boolean overdraftEnabled;
-    private Long account;
-}
+package org.example.deposit.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DepositHistoryDTO {
+    private Long depositId;
+    private BigDecimal amount;
+    private Long billId;
+    private Long accountId;
+    private String email;
+    private OffsetDateTime creationDate;
+}
@@ -0,0 +1,20 @@
+package org.example.deposit.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Page of deposit history, next cursor is null on the last page.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DepositHistoryPageDTO {
+    private List<DepositHistoryDTO> deposits;
+    private String nextCursor;
+}
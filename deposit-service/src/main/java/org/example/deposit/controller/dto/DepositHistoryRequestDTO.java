@@ -0,0 +1,27 @@
+package org.example.deposit.controller.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Query parameters of deposit history, all of them are optional.
+ */
+@Getter
+@Setter
+public class DepositHistoryRequestDTO {
+
+    private Long billId;
+
+    private Long accountId;
+
+    private String email;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private OffsetDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private OffsetDateTime to;
+}
@@ -10,7 +10,12 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 @Entity(name = "Deposit")
-@Table(name = "deposit")
+@Table(name = "deposit", indexes = {
+        @Index(name = "deposit_creation_date_id_idx", columnList = "creation_date, id"),
+        @Index(name = "deposit_bill_id_creation_date_id_idx", columnList = "bill_id, creation_date, id"),
+        @Index(name = "deposit_account_id_creation_date_id_idx", columnList = "account_id, creation_date, id"),
+        @Index(name = "deposit_email_creation_date_id_idx", columnList = "email, creation_date, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,7 +23,7 @@ import java.time.OffsetDateTime;
 public class Deposit {
 
     @Id
-    @SequenceGenerator(name = "deposit_sequence", sequenceName = "deposit_sequence", allocationSize = 1)
+    @SequenceGenerator(name = "deposit_sequence", sequenceName = "deposit_sequence", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deposit_sequence")
     @Column(name = "id", updatable = false)
     private Long depositId;
@@ -29,15 +34,19 @@ public class Deposit {
     @Column(name = "bill_id", nullable = false)
     private Long billId;
 
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
     @Column(name = "creation_date", nullable = false)
     private OffsetDateTime creationDate;
 
     @Column(name = "email", nullable = false)
     private String email;
 
-    public Deposit(BigDecimal amount, Long billId, OffsetDateTime creationDate, String email) {
+    public Deposit(BigDecimal amount, Long billId, Long accountId, OffsetDateTime creationDate, String email) {
         this.amount = amount;
         this.billId = billId;
+        this.accountId = accountId;
         this.creationDate = creationDate;
         this.email = email;
     }
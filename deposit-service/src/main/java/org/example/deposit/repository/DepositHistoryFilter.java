@@ -0,0 +1,22 @@
+package org.example.deposit.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Filter of deposit history, fields that are null are not used.
+ * Date range includes {@code from} and excludes {@code to}.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class DepositHistoryFilter {
+    private Long billId;
+    private Long accountId;
+    private String email;
+    private OffsetDateTime from;
+    private OffsetDateTime to;
+}
@@ -0,0 +1,73 @@
+package org.example.deposit.repository;
+
+import org.example.deposit.entity.Deposit;
+import org.hibernate.jpa.QueryHints;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Only filters that are set become part of the query, so the database can use the composite index
+ * of the filter column with creation date and id.
+ */
+public class DepositHistoryRepositoryImpl implements DepositHistoryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Deposit> findHistory(DepositHistoryFilter filter, OffsetDateTime beforeDate, Long beforeId, int limit) {
+        return createQuery(filter, beforeDate, beforeId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Deposit> streamHistory(DepositHistoryFilter filter, int fetchSize) {
+        return createQuery(filter, null, null)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()
+                .map(deposit -> {
+                    entityManager.detach(deposit);
+                    return deposit;
+                });
+    }
+
+    private TypedQuery<Deposit> createQuery(DepositHistoryFilter filter, OffsetDateTime beforeDate, Long beforeId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Deposit> query = cb.createQuery(Deposit.class);
+        Root<Deposit> deposit = query.from(Deposit.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getBillId() != null)
+            predicates.add(cb.equal(deposit.get("billId"), filter.getBillId()));
+        if (filter.getAccountId() != null)
+            predicates.add(cb.equal(deposit.get("accountId"), filter.getAccountId()));
+        if (filter.getEmail() != null)
+            predicates.add(cb.equal(deposit.get("email"), filter.getEmail()));
+        if (filter.getFrom() != null)
+            predicates.add(cb.greaterThanOrEqualTo(deposit.get("creationDate"), filter.getFrom()));
+        if (filter.getTo() != null)
+            predicates.add(cb.lessThan(deposit.get("creationDate"), filter.getTo()));
+        if (beforeDate != null && beforeId != null)
+            predicates.add(cb.or(
+                    cb.lessThan(deposit.get("creationDate"), beforeDate),
+                    cb.and(cb.equal(deposit.get("creationDate"), beforeDate), cb.lessThan(deposit.get("depositId"), beforeId))
+            ));
+
+        query.select(deposit)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(deposit.get("creationDate")), cb.desc(deposit.get("depositId")));
+        return entityManager.createQuery(query);
+    }
+}
@@ -5,7 +5,7 @@ import org.springframework.data.repository.CrudRepository;
 
 import java.util.List;
 
-public interface DepositRepository extends CrudRepository<Deposit, Long> {
+public interface DepositRepository extends CrudRepository<Deposit, Long>, DepositHistoryRepository {
 
     List<Deposit> findByEmail(String email);
 
@@ -0,0 +1,12 @@
+package org.example.deposit.rest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountChangedEvent {
+    private Long accountId;
+}
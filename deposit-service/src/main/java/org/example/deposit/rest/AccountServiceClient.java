@@ -1,14 +1,22 @@
 package org.example.deposit.rest;
 
+import org.example.deposit.config.CacheConfig;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 
+import java.util.List;
+
 @FeignClient(name = "account-service")
 public interface AccountServiceClient {
 
+    @Cacheable(cacheNames = CacheConfig.ACCOUNTS_CACHE)
     @RequestMapping(value = "/accounts/{accountId}", method = RequestMethod.GET)
     AccountResponseDTO getAccountById(@PathVariable("accountId") Long accountId);
 
+    @RequestMapping(value = "/accounts/batch", method = RequestMethod.POST)
+    List<AccountResponseDTO> getAccountsByIds(List<Long> accountIds);
+
 }
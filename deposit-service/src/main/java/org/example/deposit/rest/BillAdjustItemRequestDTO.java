@@ -0,0 +1,17 @@
+package org.example.deposit.rest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BillAdjustItemRequestDTO {
+    private Long billId;
+    private BigDecimal delta;
+}
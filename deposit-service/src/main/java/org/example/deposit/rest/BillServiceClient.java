@@ -17,7 +17,22 @@ public interface BillServiceClient {
     @RequestMapping(value = "bills/{billId}", method = RequestMethod.PUT)
     void update(@PathVariable("billId") Long billId, BillRequestDTO billRequestDTO);
 
+    @RequestMapping(value = "bills/batch", method = RequestMethod.POST)
+    List<BillResponseDTO> getBillsByIds(List<Long> billIds);
+
+    @RequestMapping(value = "bills/adjust/{billId}", method = RequestMethod.PUT)
+    BillResponseDTO adjust(@PathVariable("billId") Long billId, BillAdjustRequestDTO billAdjustRequestDTO);
+
+    @RequestMapping(value = "bills/adjust", method = RequestMethod.PUT)
+    List<BillResponseDTO> adjustAll(List<BillAdjustItemRequestDTO> billAdjustItemRequestDTOS);
+
     @RequestMapping(value = "bills/account/{accountId}", method = RequestMethod.GET)
     List<BillResponseDTO> getBillsByAccountId(@PathVariable("accountId") Long accountId);
 
+    @RequestMapping(value = "bills/account/{accountId}/default", method = RequestMethod.GET)
+    BillResponseDTO getDefaultBillByAccountId(@PathVariable("accountId") Long accountId);
+
+    @RequestMapping(value = "bills/account/default", method = RequestMethod.POST)
+    List<BillResponseDTO> getDefaultBillsByAccountIds(List<Long> accountIds);
+
 }
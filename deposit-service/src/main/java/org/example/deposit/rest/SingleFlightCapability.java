@@ -0,0 +1,23 @@
+package org.example.deposit.rest;
+
+import feign.Capability;
+import feign.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Wraps the client of every Feign client into a {@link SingleFlightClient}.
+ * Feign calls capabilities by reflection, so the class has to be public.
+ */
+public class SingleFlightCapability implements Capability {
+
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlightCapability(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return new SingleFlightClient(client, meterRegistry);
+    }
+}
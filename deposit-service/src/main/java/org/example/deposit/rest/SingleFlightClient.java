@@ -0,0 +1,90 @@
+package org.example.deposit.rest;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Feign client that lets concurrent GET requests for the same URL share one call to the other service (single flight).
+ * <p>
+ * The first request is sent, requests for the same URL arriving while it is in flight wait for its response
+ * and get a copy of it, or the same exception. A request arriving after the response is sent again,
+ * so a read never returns a response older than the reads in flight.
+ */
+public class SingleFlightClient implements Client {
+
+    private final Client delegate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CompletableFuture<Response>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlightClient(Client delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (request.httpMethod() != Request.HttpMethod.GET) {
+            return delegate.execute(request, options);
+        }
+        String url = request.url();
+        CompletableFuture<Response> call = new CompletableFuture<>();
+        CompletableFuture<Response> leader = inFlight.putIfAbsent(url, call);
+        if (leader != null) {
+            count(url, "collapsed");
+            return await(leader).toBuilder().request(request).build();
+        }
+        count(url, "executed");
+        try {
+            Response response = buffer(delegate.execute(request, options));
+            call.complete(response);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(url, call);
+        }
+    }
+
+    /**
+     * Read the body, so every request sharing the response can read it.
+     */
+    private static Response buffer(Response response) throws IOException {
+        if (response.body() == null) {
+            return response;
+        }
+        try (InputStream body = response.body().asInputStream()) {
+            return response.toBuilder().body(Util.toByteArray(body)).build();
+        }
+    }
+
+    private static Response await(CompletableFuture<Response> leader) throws IOException {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the same request in flight");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    private void count(String url, String result) {
+        meterRegistry.counter("single.flight.client.requests", "client", URI.create(url).getHost(), "result", result).increment();
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.deposit.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.deposit.config.CacheConfig;
+import org.example.deposit.rest.AccountChangedEvent;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class AccountCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public AccountCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Drop cached account when account-service updates or deletes it.
+     *
+     * @param event account changed event
+     */
+    @RabbitListener(queues = "#{accountChangedQueue.name}")
+    public void onAccountChanged(AccountChangedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.ACCOUNTS_CACHE);
+        if (cache != null) {
+            cache.evict(event.getAccountId());
+            log.info("Evict account with id " + event.getAccountId() + " from cache");
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.deposit.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.deposit.controller.dto.DepositBulkItemResponseDTO;
+import org.example.deposit.controller.dto.DepositRequestDTO;
+import org.example.deposit.controller.dto.DepositResponseDTO;
+import org.example.deposit.entity.Deposit;
+import org.example.deposit.repository.DepositRepository;
+import org.example.deposit.rest.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class DepositBulkService {
+
+    private static final String TOPIC_EXCHANGE_DEPOSIT = "js.deposit.notify.exchange";
+    private static final String ROUTING_KEY_DEPOSIT = "js.key.deposit";
+
+    private final DepositRepository depositRepository;
+
+    private final AccountServiceClient accountServiceClient;
+
+    private final BillServiceClient billServiceClient;
+
+    private final OutboxService outboxService;
+
+    private final int chunkSize;
+
+    @Autowired
+    public DepositBulkService(
+            DepositRepository depositRepository,
+            AccountServiceClient accountServiceClient,
+            BillServiceClient billServiceClient,
+            OutboxService outboxService,
+            @Value("${deposit.bulk.chunk-size:500}") int chunkSize
+    ) {
+        this.depositRepository = depositRepository;
+        this.accountServiceClient = accountServiceClient;
+        this.billServiceClient = billServiceClient;
+        this.outboxService = outboxService;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Accept many deposits. Deposits are processed in chunks, every chunk costs one call to resolve default bills,
+     * one call to get bill owners, one call to get account emails, one call to change all bill amounts and
+     * one transaction to save deposits with notifications. Bills are changed only for deposits that can be
+     * accepted, so a rejected deposit never changes a bill.
+     *
+     * @param depositRequestDTOS deposits, each one to bill or to account default bill
+     * @return result for every deposit in request order
+     */
+    public List<DepositBulkItemResponseDTO> depositAll(List<DepositRequestDTO> depositRequestDTOS) {
+        List<DepositBulkItemResponseDTO> results = new ArrayList<>(depositRequestDTOS.size());
+        for (int from = 0; from < depositRequestDTOS.size(); from += chunkSize) {
+            List<DepositRequestDTO> chunk = depositRequestDTOS.subList(from, Math.min(from + chunkSize, depositRequestDTOS.size()));
+            results.addAll(depositChunk(chunk));
+        }
+        log.info("Accept bulk of " + depositRequestDTOS.size() + " deposits");
+        return results;
+    }
+
+    private List<DepositBulkItemResponseDTO> depositChunk(List<DepositRequestDTO> chunk) {
+        DepositBulkItemResponseDTO[] results = new DepositBulkItemResponseDTO[chunk.size()];
+        Map<Long, Long> billAccounts = new HashMap<>();
+        Long[] billIds = resolveBillIds(chunk, results, billAccounts);
+
+        List<Long> unknownBillIds = Arrays.stream(billIds)
+                .filter(billId -> billId != null && !billAccounts.containsKey(billId))
+                .distinct()
+                .toList();
+        if (!unknownBillIds.isEmpty())
+            billServiceClient.getBillsByIds(unknownBillIds)
+                    .forEach(bill -> billAccounts.put(bill.getBillId(), bill.getAccount()));
+
+        List<Long> accountIds = billAccounts.values().stream().distinct().toList();
+        Map<Long, String> emails = accountIds.isEmpty() ? Map.of() : accountServiceClient.getAccountsByIds(accountIds)
+                .stream()
+                .collect(Collectors.toMap(AccountResponseDTO::getAccountId, AccountResponseDTO::getEmail));
+
+        // reject deposits before any bill is changed, sum the rest to the same bill, so every bill is updated once
+        Map<Long, BigDecimal> deltas = new TreeMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] != null)
+                continue;
+
+            BigDecimal amount = chunk.get(i).getAmount();
+            Long accountId = billAccounts.get(billIds[i]);
+            if (accountId == null) {
+                results[i] = DepositBulkItemResponseDTO.rejected(billIds[i], amount, "Bill with id " + billIds[i] + " is not found");
+            } else if (!emails.containsKey(accountId)) {
+                results[i] = DepositBulkItemResponseDTO.rejected(billIds[i], amount, "Account with id " + accountId + " is not found");
+            } else {
+                deltas.merge(billIds[i], amount, BigDecimal::add);
+            }
+        }
+        Map<Long, BillResponseDTO> adjustedBills = deltas.isEmpty() ? Map.of() : billServiceClient.adjustAll(deltas.entrySet()
+                        .stream()
+                        .map(e -> new BillAdjustItemRequestDTO(e.getKey(), e.getValue()))
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(BillResponseDTO::getBillId, Function.identity()));
+
+        List<Deposit> deposits = new ArrayList<>(chunk.size());
+        List<DepositResponseDTO> messages = new ArrayList<>(chunk.size());
+        OffsetDateTime now = OffsetDateTime.now();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] != null)
+                continue;
+
+            BigDecimal amount = chunk.get(i).getAmount();
+            BillResponseDTO bill = adjustedBills.get(billIds[i]);
+            if (bill == null) {
+                // deleted after it was looked up, bill-service skips it
+                results[i] = DepositBulkItemResponseDTO.rejected(billIds[i], amount, "Bill with id " + billIds[i] + " is not found");
+                continue;
+            }
+            String email = emails.get(bill.getAccount());
+            deposits.add(new Deposit(amount, billIds[i], bill.getAccount(), now, email));
+            messages.add(new DepositResponseDTO(amount, email));
+            results[i] = DepositBulkItemResponseDTO.accepted(billIds[i], amount, email);
+        }
+
+        if (!deposits.isEmpty())
+            outboxService.saveAllWithMessages(depositRepository, deposits, TOPIC_EXCHANGE_DEPOSIT, ROUTING_KEY_DEPOSIT, messages);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Obtain bill id for every deposit, default bills of accounts are obtained with one call
+     * and their owners are put to bill accounts. Deposits that can not be accepted get rejected result.
+     */
+    private Long[] resolveBillIds(List<DepositRequestDTO> chunk, DepositBulkItemResponseDTO[] results, Map<Long, Long> billAccounts) {
+        List<Long> accountIds = chunk.stream()
+                .filter(d -> d.getBillId() == null && d.getAccountId() != null)
+                .map(DepositRequestDTO::getAccountId)
+                .distinct()
+                .toList();
+        Map<Long, Long> defaultBillIds = new HashMap<>();
+        if (!accountIds.isEmpty())
+            billServiceClient.getDefaultBillsByAccountIds(accountIds).forEach(bill -> {
+                defaultBillIds.put(bill.getAccount(), bill.getBillId());
+                billAccounts.put(bill.getBillId(), bill.getAccount());
+            });
+
+        Long[] billIds = new Long[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            DepositRequestDTO depositRequestDTO = chunk.get(i);
+            BigDecimal amount = depositRequestDTO.getAmount();
+            if (amount == null || amount.signum() <= 0) {
+                results[i] = DepositBulkItemResponseDTO.rejected(depositRequestDTO.getBillId(), amount, "amount should be positive");
+            } else if (depositRequestDTO.getBillId() != null) {
+                billIds[i] = depositRequestDTO.getBillId();
+            } else if (depositRequestDTO.getAccountId() == null) {
+                results[i] = DepositBulkItemResponseDTO.rejected(null, amount, "Account is null and bill is null");
+            } else if (!defaultBillIds.containsKey(depositRequestDTO.getAccountId())) {
+                results[i] = DepositBulkItemResponseDTO.rejected(null, amount, "Unable to find default bill for account with id " + depositRequestDTO.getAccountId());
+            } else {
+                billIds[i] = defaultBillIds.get(depositRequestDTO.getAccountId());
+            }
+        }
+        return billIds;
+    }
+}
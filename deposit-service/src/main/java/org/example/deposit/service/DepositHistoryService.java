@@ -0,0 +1,118 @@
+package org.example.deposit.service;
+
+import org.example.deposit.controller.dto.DepositHistoryDTO;
+import org.example.deposit.controller.dto.DepositHistoryPageDTO;
+import org.example.deposit.entity.Deposit;
+import org.example.deposit.exception.DepositServiceException;
+import org.example.deposit.repository.DepositHistoryFilter;
+import org.example.deposit.repository.DepositRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+public class DepositHistoryService {
+
+    private final DepositRepository depositRepository;
+
+    private final int maxPageSize;
+
+    private final int fetchSize;
+
+    @Autowired
+    public DepositHistoryService(
+            DepositRepository depositRepository,
+            @Value("${deposit.history.max-page-size:500}") int maxPageSize,
+            @Value("${deposit.history.fetch-size:500}") int fetchSize
+    ) {
+        this.depositRepository = depositRepository;
+        this.maxPageSize = maxPageSize;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Obtain one page of deposit history from new to old. Keyset pagination is used, so the cost of a page
+     * does not depend on how far it is from the start.
+     *
+     * @param filter history filter
+     * @param cursor next cursor of the previous page, null for the first page
+     * @param limit  page size
+     * @return page with deposits and cursor of the next page
+     */
+    @Transactional(readOnly = true)
+    public DepositHistoryPageDTO getHistory(DepositHistoryFilter filter, String cursor, int limit) {
+        if (limit < 1 || limit > maxPageSize)
+            throw new DepositServiceException("Limit should be between 1 and " + maxPageSize);
+
+        OffsetDateTime beforeDate = null;
+        Long beforeId = null;
+        if (cursor != null) {
+            String[] keys = decodeCursor(cursor);
+            beforeDate = OffsetDateTime.ofInstant(Instant.ofEpochSecond(Long.parseLong(keys[0]), Long.parseLong(keys[1])), ZoneOffset.UTC);
+            beforeId = Long.parseLong(keys[2]);
+        }
+
+        // one more deposit shows if there is a next page
+        List<Deposit> deposits = depositRepository.findHistory(filter, beforeDate, beforeId, limit + 1);
+        String nextCursor = null;
+        if (deposits.size() > limit) {
+            deposits = deposits.subList(0, limit);
+            nextCursor = encodeCursor(deposits.get(limit - 1));
+        }
+        return new DepositHistoryPageDTO(deposits.stream().map(DepositHistoryService::toDTO).toList(), nextCursor);
+    }
+
+    /**
+     * Pass whole deposit history from new to old to the consumer. Deposits are read by fetch size,
+     * so memory use does not depend on history size.
+     *
+     * @param filter   history filter
+     * @param consumer consumer of deposits
+     */
+    @Transactional(readOnly = true)
+    public void streamHistory(DepositHistoryFilter filter, Consumer<DepositHistoryDTO> consumer) {
+        try (Stream<Deposit> deposits = depositRepository.streamHistory(filter, fetchSize)) {
+            deposits.map(DepositHistoryService::toDTO).forEach(consumer);
+        }
+    }
+
+    private static DepositHistoryDTO toDTO(Deposit deposit) {
+        return new DepositHistoryDTO(
+                deposit.getDepositId(),
+                deposit.getAmount(),
+                deposit.getBillId(),
+                deposit.getAccountId(),
+                deposit.getEmail(),
+                deposit.getCreationDate()
+        );
+    }
+
+    private static String encodeCursor(Deposit deposit) {
+        Instant creationDate = deposit.getCreationDate().toInstant();
+        String keys = creationDate.getEpochSecond() + ":" + creationDate.getNano() + ":" + deposit.getDepositId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(keys.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] keys = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (keys.length != 3)
+                throw new DepositServiceException("Cursor " + cursor + " is not valid");
+            for (String key : keys)
+                Long.parseLong(key);
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw new DepositServiceException("Cursor " + cursor + " is not valid");
+        }
+    }
+}
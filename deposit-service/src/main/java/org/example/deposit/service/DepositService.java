@@ -1,19 +1,22 @@
 package org.example.deposit.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
+import org.example.deposit.config.ExecutorConfig;
 import org.example.deposit.controller.dto.DepositResponseDTO;
 import org.example.deposit.entity.Deposit;
 import org.example.deposit.exception.DepositServiceException;
 import org.example.deposit.repository.DepositRepository;
 import org.example.deposit.rest.*;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @Service
 @Slf4j
@@ -28,73 +31,92 @@ public class DepositService {
 
     private final BillServiceClient billServiceClient;
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxService outboxService;
+
+    private final Executor downstreamExecutor;
 
     @Autowired
     public DepositService(
             DepositRepository depositRepository,
             AccountServiceClient accountServiceClient,
             BillServiceClient billServiceClient,
-            RabbitTemplate rabbitTemplate
+            OutboxService outboxService,
+            @Qualifier(ExecutorConfig.DOWNSTREAM_EXECUTOR) Executor downstreamExecutor
     ) {
         this.depositRepository = depositRepository;
         this.accountServiceClient = accountServiceClient;
         this.billServiceClient = billServiceClient;
-        this.rabbitTemplate = rabbitTemplate;
+        this.outboxService = outboxService;
+        this.downstreamExecutor = downstreamExecutor;
     }
 
+    /**
+     * Make deposit to bill or to account default bill. Account lookup does not depend on bill calls,
+     * so it runs on the downstream executor while bill-service calls are made on the caller thread.
+     *
+     * @param accountId account id, used when bill id is null
+     * @param billId    bill id, can be null
+     * @param amount    sum of deposit
+     * @return deposit response
+     */
     public DepositResponseDTO deposit(Long accountId, Long billId, BigDecimal amount) {
         if (accountId == null && billId == null)
             throw new DepositServiceException("Account is null and bill is null");
 
         if (billId != null) {
-            BillResponseDTO billResponseDTO = billServiceClient.getBillById(billId);
-            BillRequestDTO billRequestDTO = createBillRequestDTO(amount, billResponseDTO);
-            billServiceClient.update(billId, billRequestDTO);
-            AccountResponseDTO accountResponseDTO = accountServiceClient.getAccountById(billResponseDTO.getAccount());
-            depositRepository.save(new Deposit(amount, billId, OffsetDateTime.now(), accountResponseDTO.getEmail()));
+            // owner of the bill is known only after adjust, if account id is sent its lookup starts at once
+            CompletableFuture<AccountResponseDTO> account = accountId != null ? getAccountAsync(accountId) : null;
+            BillResponseDTO billResponseDTO = billServiceClient.adjust(billId, new BillAdjustRequestDTO(amount));
+            AccountResponseDTO accountResponseDTO = account != null && billResponseDTO.getAccount().equals(accountId)
+                    ? join(account)
+                    : accountServiceClient.getAccountById(billResponseDTO.getAccount());
+            Deposit deposit = new Deposit(amount, billId, accountResponseDTO.getAccountId(), OffsetDateTime.now(), accountResponseDTO.getEmail());
             log.info("Accept a deposit to bill with id " + billId + " for amount " + amount);
-            return createResponse(amount, accountResponseDTO);
+            return createResponse(deposit, accountResponseDTO);
         }
 
+        // account lookup overlaps with the default bill lookup, it is joined before adjust,
+        // so a failed lookup does not leave the bill changed without a deposit
+        CompletableFuture<AccountResponseDTO> account = getAccountAsync(accountId);
         BillResponseDTO defaultBill = getDefaultBill(accountId);
-        BillRequestDTO billRequestDTO = createBillRequestDTO(amount, defaultBill);
-        billServiceClient.update(defaultBill.getBillId(), billRequestDTO);
-        AccountResponseDTO account = accountServiceClient.getAccountById(accountId);
-        depositRepository.save(new Deposit(amount, defaultBill.getBillId(), OffsetDateTime.now(), account.getEmail()));
+        AccountResponseDTO accountResponseDTO = join(account);
+        billServiceClient.adjust(defaultBill.getBillId(), new BillAdjustRequestDTO(amount));
+        Deposit deposit = new Deposit(amount, defaultBill.getBillId(), accountId, OffsetDateTime.now(), accountResponseDTO.getEmail());
         log.info("Accept a deposit to bill with id " + defaultBill.getBillId() + " for amount " + amount);
-        return createResponse(amount, account);
+        return createResponse(deposit, accountResponseDTO);
     }
 
-    private DepositResponseDTO createResponse(BigDecimal amount, AccountResponseDTO accountResponseDTO) {
-        DepositResponseDTO depositResponseDTO = new DepositResponseDTO(amount, accountResponseDTO.getEmail());
+    private CompletableFuture<AccountResponseDTO> getAccountAsync(Long accountId) {
+        return CompletableFuture.supplyAsync(() -> accountServiceClient.getAccountById(accountId), downstreamExecutor);
+    }
 
-        ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Wait for result, exception of the call is thrown as is, so it is handled like a serial call.
+     */
+    private static <T> T join(CompletableFuture<T> future) {
         try {
-            rabbitTemplate.convertAndSend(TOPIC_EXCHANGE_DEPOSIT, ROUTING_KEY_DEPOSIT, objectMapper.writeValueAsString(depositResponseDTO));
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
-            throw new DepositServiceException("Cant send message to RabbitMQ");
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
         }
-
-        return depositResponseDTO;
     }
 
-    private static BillRequestDTO createBillRequestDTO(BigDecimal amount, BillResponseDTO billResponseDTO) {
-        return BillRequestDTO.builder()
-                .account(billResponseDTO.getAccount())
-                .isDefault(billResponseDTO.isDefault())
-                .creationDate(billResponseDTO.getCreationDate())
-                .overdraftEnabled(billResponseDTO.isOverdraftEnabled())
-                .amount(billResponseDTO.getAmount().add(amount))
-                .build();
+    /**
+     * Save deposit and message for RabbitMQ in one transaction, message is sent by outbox relay.
+     */
+    private DepositResponseDTO createResponse(Deposit deposit, AccountResponseDTO accountResponseDTO) {
+        DepositResponseDTO depositResponseDTO = new DepositResponseDTO(deposit.getAmount(), accountResponseDTO.getEmail());
+        outboxService.saveWithMessage(depositRepository, deposit, TOPIC_EXCHANGE_DEPOSIT, ROUTING_KEY_DEPOSIT, depositResponseDTO);
+        return depositResponseDTO;
     }
 
     private BillResponseDTO getDefaultBill(Long accountId) {
-        return billServiceClient.getBillsByAccountId(accountId)
-                .stream()
-                .filter(BillResponseDTO::isDefault)
-                .findAny()
-                .orElseThrow(() -> new DepositServiceException("Unable to find default bill for account with id " + accountId));
+        try {
+            return billServiceClient.getDefaultBillByAccountId(accountId);
+        } catch (FeignException.BadRequest e) {
+            throw new DepositServiceException("Unable to find default bill for account with id " + accountId);
+        }
     }
 }
@@ -0,0 +1,77 @@
+package org.example.deposit.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.example.deposit.entity.OutboxMessage;
+import org.example.deposit.repository.OutboxMessageRepository;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Send saved outbox messages to RabbitMQ in batches and delete them after broker confirms.
+ * If relay fails between send and delete, messages are sent again, so consumers get them at least once.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxMessageRepository outboxMessageRepository;
+
+    private final RabbitTemplate rabbitTemplate;
+
+    private final int batchSize;
+
+    private final long confirmTimeout;
+
+    @Autowired
+    public OutboxRelay(
+            OutboxMessageRepository outboxMessageRepository,
+            RabbitTemplate rabbitTemplate,
+            @Value("${outbox.relay.batch-size:500}") int batchSize,
+            @Value("${outbox.relay.confirm-timeout:5000}") long confirmTimeout
+    ) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    /**
+     * Send one batch of messages on one channel and wait for publisher confirms of the whole batch.
+     *
+     * @return number of sent messages
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.delay:500}")
+    @Transactional
+    public int relay() {
+        List<OutboxMessage> messages = outboxMessageRepository.findBatchForUpdate(PageRequest.of(0, batchSize));
+        if (messages.isEmpty())
+            return 0;
+
+        rabbitTemplate.invoke(operations -> {
+            messages.forEach(m -> operations.send(m.getExchange(), m.getRoutingKey(), createMessage(m)));
+            operations.waitForConfirmsOrDie(confirmTimeout);
+            return null;
+        });
+
+        outboxMessageRepository.deleteByMessageIds(messages.stream().map(OutboxMessage::getMessageId).toList());
+        log.info("Send " + messages.size() + " outbox messages to RabbitMQ");
+        return messages.size();
+    }
+
+    private Message createMessage(OutboxMessage outboxMessage) {
+        MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setContentType(outboxMessage.getContentType());
+        messageProperties.setContentEncoding(StandardCharsets.UTF_8.name());
+        return new Message(outboxMessage.getPayload(), messageProperties);
+    }
+}
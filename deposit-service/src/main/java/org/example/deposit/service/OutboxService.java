@@ -0,0 +1,91 @@
+package org.example.deposit.service;
+
+import org.example.deposit.entity.OutboxMessage;
+import org.example.deposit.exception.DepositServiceException;
+import org.example.deposit.repository.OutboxMessageRepository;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class OutboxService {
+
+    private final OutboxMessageRepository outboxMessageRepository;
+
+    private final MessageConverter messageConverter;
+
+    @Autowired
+    public OutboxService(OutboxMessageRepository outboxMessageRepository, MessageConverter messageConverter) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.messageConverter = messageConverter;
+    }
+
+    /**
+     * Save entity and message for RabbitMQ in one transaction, message is sent later by {@link OutboxRelay}.
+     *
+     * @param repository entity repository
+     * @param entity     entity to save
+     * @param exchange   RabbitMQ exchange
+     * @param routingKey RabbitMQ routing key
+     * @param message    message body
+     * @return saved entity
+     */
+    @Transactional
+    public <T> T saveWithMessage(CrudRepository<T, Long> repository, T entity, String exchange, String routingKey, Object message) {
+        Message amqpMessage;
+        try {
+            amqpMessage = messageConverter.toMessage(message, new MessageProperties());
+        } catch (MessageConversionException e) {
+            throw new DepositServiceException("Cant send message to RabbitMQ");
+        }
+
+        T savedEntity = repository.save(entity);
+        outboxMessageRepository.save(new OutboxMessage(
+                exchange,
+                routingKey,
+                amqpMessage.getMessageProperties().getContentType(),
+                amqpMessage.getBody(),
+                OffsetDateTime.now())
+        );
+        return savedEntity;
+    }
+
+    /**
+     * Save entities and messages for RabbitMQ in one transaction, inserts are sent in JDBC batches.
+     *
+     * @param repository entity repository
+     * @param entities   entities to save
+     * @param exchange   RabbitMQ exchange
+     * @param routingKey RabbitMQ routing key
+     * @param messages   message bodies
+     * @return saved entities
+     */
+    @Transactional
+    public <T> List<T> saveAllWithMessages(CrudRepository<T, Long> repository, List<T> entities, String exchange, String routingKey, List<?> messages) {
+        List<OutboxMessage> outboxMessages = new ArrayList<>(messages.size());
+        OffsetDateTime now = OffsetDateTime.now();
+        for (Object message : messages) {
+            Message amqpMessage;
+            try {
+                amqpMessage = messageConverter.toMessage(message, new MessageProperties());
+            } catch (MessageConversionException e) {
+                throw new DepositServiceException("Cant send message to RabbitMQ");
+            }
+            outboxMessages.add(new OutboxMessage(exchange, routingKey, amqpMessage.getMessageProperties().getContentType(), amqpMessage.getBody(), now));
+        }
+
+        List<T> savedEntities = new ArrayList<>(entities.size());
+        repository.saveAll(entities).forEach(savedEntities::add);
+        outboxMessageRepository.saveAll(outboxMessages);
+        return savedEntities;
+    }
+}
@@ -0,0 +1,28 @@
+CREATE SEQUENCE deposit_sequence START 1 INCREMENT 50;
+
+CREATE TABLE deposit
+(
+    id            BIGINT         NOT NULL PRIMARY KEY,
+    amount        NUMERIC(19, 2) NOT NULL,
+    bill_id       BIGINT         NOT NULL,
+    account_id    BIGINT         NOT NULL,
+    email         VARCHAR(255)   NOT NULL,
+    creation_date TIMESTAMP      NOT NULL
+);
+
+CREATE INDEX deposit_creation_date_id_idx ON deposit (creation_date, id);
+CREATE INDEX deposit_bill_id_creation_date_id_idx ON deposit (bill_id, creation_date, id);
+CREATE INDEX deposit_account_id_creation_date_id_idx ON deposit (account_id, creation_date, id);
+CREATE INDEX deposit_email_creation_date_id_idx ON deposit (email, creation_date, id);
+
+CREATE SEQUENCE outbox_message_sequence START 1 INCREMENT 50;
+
+CREATE TABLE outbox_message
+(
+    id            BIGINT       NOT NULL PRIMARY KEY,
+    exchange      VARCHAR(255) NOT NULL,
+    routing_key   VARCHAR(255) NOT NULL,
+    content_type  VARCHAR(255) NOT NULL,
+    payload       BYTEA        NOT NULL,
+    creation_date TIMESTAMP    NOT NULL
+);
@@ -0,0 +1,164 @@
+package org.example.deposit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.cloud.loadbalancer.support.SimpleObjectProvider;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Simulates bill-service with two fast instances and one slow instance on a simulated clock
+ * and compares response times of round-robin and peak-EWMA load balancing.
+ */
+@Slf4j
+public class PeakEwmaLoadBalancerTest {
+
+    private static final int REQUESTS = 20000;
+    private static final long ARRIVAL_INTERVAL = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private static final ServiceInstance FAST_1 = new DefaultServiceInstance("bill-1", "bill-service", "bill-1", 8082, false);
+    private static final ServiceInstance FAST_2 = new DefaultServiceInstance("bill-2", "bill-service", "bill-2", 8082, false);
+    private static final ServiceInstance SLOW = new DefaultServiceInstance("bill-3", "bill-service", "bill-3", 8082, false);
+
+    private static final Map<String, Long> LATENCIES = Map.of(
+            "bill-1", TimeUnit.MILLISECONDS.toNanos(10),
+            "bill-2", TimeUnit.MILLISECONDS.toNanos(10),
+            "bill-3", TimeUnit.MILLISECONDS.toNanos(250));
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ServiceInstanceListSupplier supplier = ServiceInstanceListSuppliers.from("bill-service", FAST_1, FAST_2, SLOW);
+
+    @Test
+    public void peakEwmaAvoidsSlowInstance() {
+        // given
+        RoundRobinLoadBalancer roundRobin = new RoundRobinLoadBalancer(new SimpleObjectProvider<>(supplier), "bill-service");
+        PeakEwmaLoadBalancer peakEwma = new PeakEwmaLoadBalancer(new SimpleObjectProvider<>(supplier), clock::get);
+
+        // when
+        long[] roundRobinLatencies = simulate(roundRobin, null);
+        long[] peakEwmaLatencies = simulate(peakEwma, peakEwma);
+
+        // then
+        long roundRobinP99 = percentile(roundRobinLatencies, 0.99);
+        long peakEwmaP99 = percentile(peakEwmaLatencies, 0.99);
+        log.info("Round-robin p50 " + TimeUnit.NANOSECONDS.toMillis(percentile(roundRobinLatencies, 0.5))
+                + " ms, p99 " + TimeUnit.NANOSECONDS.toMillis(roundRobinP99) + " ms; peak EWMA p50 "
+                + TimeUnit.NANOSECONDS.toMillis(percentile(peakEwmaLatencies, 0.5))
+                + " ms, p99 " + TimeUnit.NANOSECONDS.toMillis(peakEwmaP99) + " ms; requests to the slow instance: "
+                + slowCount(roundRobinLatencies) + " vs " + slowCount(peakEwmaLatencies) + " of " + REQUESTS);
+        assertEquals(LATENCIES.get("bill-3"), roundRobinP99);
+        assertEquals(LATENCIES.get("bill-1"), peakEwmaP99);
+    }
+
+    @Test
+    public void failedInstanceIsAvoided() {
+        // given
+        PeakEwmaLoadBalancer peakEwma = new PeakEwmaLoadBalancer(new SimpleObjectProvider<>(supplier), clock::get);
+        call(peakEwma, FAST_1, TimeUnit.MILLISECONDS.toNanos(10), CompletionContext.Status.SUCCESS);
+        call(peakEwma, FAST_2, TimeUnit.MILLISECONDS.toNanos(10), CompletionContext.Status.SUCCESS);
+        // fails at once, for example connection refused
+        call(peakEwma, SLOW, TimeUnit.MILLISECONDS.toNanos(1), CompletionContext.Status.FAILED);
+
+        // when
+        int slowChosen = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (peakEwma.choose(new DefaultRequest<>(new RequestDataContext())).block().getServer().equals(SLOW)) {
+                slowChosen++;
+            }
+        }
+
+        // then
+        assertEquals(0, slowChosen);
+    }
+
+    @Test
+    public void unmeasuredInstanceWithRequestInFlightIsNotPreferred() {
+        // given
+        PeakEwmaLoadBalancer peakEwma = new PeakEwmaLoadBalancer(
+                new SimpleObjectProvider<>(ServiceInstanceListSuppliers.from("bill-service", FAST_1, SLOW)), clock::get);
+        call(peakEwma, FAST_1, TimeUnit.MILLISECONDS.toNanos(10), CompletionContext.Status.SUCCESS);
+        peakEwma.onStartRequest(new DefaultRequest<>(new RequestDataContext()), new DefaultResponse(SLOW));
+
+        // when
+        Response<ServiceInstance> response = peakEwma.choose(new DefaultRequest<>(new RequestDataContext())).block();
+
+        // then
+        assertEquals(FAST_1, response.getServer());
+    }
+
+    private long[] simulate(ReactorServiceInstanceLoadBalancer loadBalancer, PeakEwmaLoadBalancer lifecycle) {
+        clock.set(0);
+        PriorityQueue<InFlight> inFlight = new PriorityQueue<>(Comparator.comparingLong(call -> call.end));
+        long[] latencies = new long[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            long now = i * ARRIVAL_INTERVAL;
+            while (!inFlight.isEmpty() && inFlight.peek().end <= now) {
+                InFlight call = inFlight.poll();
+                clock.set(call.end);
+                if (lifecycle != null) {
+                    lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, call.request, call.response));
+                }
+            }
+            clock.set(now);
+            Request<Object> request = new DefaultRequest<>(new RequestDataContext());
+            Response<ServiceInstance> response = loadBalancer.choose(request).block();
+            if (lifecycle != null) {
+                lifecycle.onStartRequest(request, response);
+            }
+            long latency = LATENCIES.get(response.getServer().getInstanceId());
+            latencies[i] = latency;
+            inFlight.add(new InFlight(now + latency, request, response));
+        }
+        return latencies;
+    }
+
+    private void call(PeakEwmaLoadBalancer peakEwma, ServiceInstance instance, long latency, CompletionContext.Status status) {
+        Request<Object> request = new DefaultRequest<>(new RequestDataContext());
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+        peakEwma.onStartRequest(request, response);
+        clock.addAndGet(latency);
+        peakEwma.onComplete(new CompletionContext<>(status, request, response));
+    }
+
+    private static long slowCount(long[] latencies) {
+        return Arrays.stream(latencies).filter(latency -> latency == LATENCIES.get("bill-3")).count();
+    }
+
+    private static long percentile(long[] latencies, double percentile) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    private static class InFlight {
+
+        private final long end;
+        private final Request<Object> request;
+        private final Response<ServiceInstance> response;
+
+        private InFlight(long end, Request<Object> request, Response<ServiceInstance> response) {
+            this.end = end;
+            this.request = request;
+            this.response = response;
+        }
+    }
+}
@@ -33,6 +33,7 @@ import java.util.List;
 
 import static com.jayway.jsonpath.internal.path.PathCompiler.fail;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -69,7 +70,7 @@ class DepositControllerTest {
     @Test
     void itShouldCreateDeposit() throws Exception {
         // given
-        when(billServiceClient.getBillById(anyLong())).thenReturn(createBillResponseDTO());
+        when(billServiceClient.adjust(anyLong(), any())).thenReturn(createBillResponseDTO());
         AccountResponseDTO accountResponseDTO = createAccountResponseDTO();
         when(accountServiceClient.getAccountById(anyLong())).thenReturn(accountResponseDTO);
         DepositRequestDTO requestDTO = DepositRequestDTO.builder()
@@ -0,0 +1,86 @@
+package org.example.deposit.repository;
+
+import org.example.deposit.entity.Deposit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class DepositRepositoryTest {
+
+    private static final OffsetDateTime DATE = OffsetDateTime.of(2022, 7, 9, 22, 10, 30, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private DepositRepository underTest;
+
+    private List<Deposit> deposits;
+
+    @BeforeEach
+    void setUp() {
+        deposits = List.of(
+                new Deposit(BigDecimal.valueOf(100), 1L, 1L, DATE, "dmitry@gmail.com"),
+                new Deposit(BigDecimal.valueOf(200), 1L, 1L, DATE, "dmitry@gmail.com"),
+                new Deposit(BigDecimal.valueOf(300), 1L, 1L, DATE.plusDays(1), "dmitry@gmail.com"),
+                new Deposit(BigDecimal.valueOf(400), 2L, 2L, DATE.plusDays(2), "dmitry1@gmail.com")
+        );
+        underTest.saveAll(deposits);
+    }
+
+    @Test
+    void itShouldFindHistoryPage_afterLastDepositOfPreviousPage() {
+        // given
+        DepositHistoryFilter filter = DepositHistoryFilter.builder().billId(1L).build();
+
+        // when
+        List<Deposit> firstPage = underTest.findHistory(filter, null, null, 2);
+        Deposit last = firstPage.get(1);
+        List<Deposit> secondPage = underTest.findHistory(filter, last.getCreationDate(), last.getDepositId(), 2);
+
+        // then
+        assertThat(firstPage).extracting(Deposit::getAmount)
+                .containsExactly(BigDecimal.valueOf(300), BigDecimal.valueOf(200));
+        assertThat(secondPage).extracting(Deposit::getAmount)
+                .containsExactly(BigDecimal.valueOf(100));
+    }
+
+    @Test
+    void itShouldFindHistory_byEmailAndDateRange() {
+        // given
+        DepositHistoryFilter filter = DepositHistoryFilter.builder()
+                .email("dmitry@gmail.com")
+                .from(DATE)
+                .to(DATE.plusDays(1))
+                .build();
+
+        // when
+        List<Deposit> expected = underTest.findHistory(filter, null, null, 10);
+
+        // then
+        assertThat(expected).extracting(Deposit::getAmount)
+                .containsExactly(BigDecimal.valueOf(200), BigDecimal.valueOf(100));
+    }
+
+    @Test
+    void itShouldStreamHistory_byAccount() {
+        // given
+        DepositHistoryFilter filter = DepositHistoryFilter.builder().accountId(2L).build();
+
+        // when
+        List<Deposit> expected;
+        try (Stream<Deposit> stream = underTest.streamHistory(filter, 1)) {
+            expected = stream.toList();
+        }
+
+        // then
+        assertThat(expected).extracting(Deposit::getAmount).containsExactly(BigDecimal.valueOf(400));
+    }
+}
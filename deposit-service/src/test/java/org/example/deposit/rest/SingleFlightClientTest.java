@@ -0,0 +1,164 @@
+package org.example.deposit.rest;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightClientTest {
+
+    private static final int CONCURRENT_REQUESTS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void itShouldShareOneCall_whenSameBillIsReadConcurrently() throws Exception {
+        // given
+        SingleFlightClient client = new SingleFlightClient(slowClient(null), meterRegistry);
+
+        // when
+        List<Future<String>> responses = submit(client, Request.HttpMethod.GET, i -> "http://bill-service/bills/1");
+        awaitWaiting();
+        release.countDown();
+
+        // then
+        for (Future<String> response : responses) {
+            assertEquals("{\"billId\":1}", response.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1, count("executed"));
+        assertEquals(CONCURRENT_REQUESTS - 1, count("collapsed"));
+    }
+
+    @Test
+    public void itShouldCallForEveryRequest_whenUrlsDiffer() throws Exception {
+        // given
+        SingleFlightClient client = new SingleFlightClient(slowClient(null), meterRegistry);
+        release.countDown();
+
+        // when
+        List<Future<String>> responses = submit(client, Request.HttpMethod.GET, i -> "http://bill-service/bills/" + i);
+
+        // then
+        for (Future<String> response : responses) {
+            response.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(CONCURRENT_REQUESTS, calls.get());
+        assertEquals(0, count("collapsed"));
+    }
+
+    @Test
+    public void itShouldNotShareCall_whenRequestIsNotGet() throws Exception {
+        // given
+        SingleFlightClient client = new SingleFlightClient(slowClient(null), meterRegistry);
+        release.countDown();
+
+        // when
+        List<Future<String>> responses = submit(client, Request.HttpMethod.PUT, i -> "http://bill-service/bills/adjust/1");
+
+        // then
+        for (Future<String> response : responses) {
+            response.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(CONCURRENT_REQUESTS, calls.get());
+    }
+
+    @Test
+    public void itShouldShareException_whenSharedCallFails() throws Exception {
+        // given
+        SingleFlightClient client = new SingleFlightClient(slowClient(new ConnectException("Connection refused")), meterRegistry);
+
+        // when
+        List<Future<String>> responses = submit(client, Request.HttpMethod.GET, i -> "http://bill-service/bills/1");
+        awaitWaiting();
+        release.countDown();
+
+        // then
+        for (Future<String> response : responses) {
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> response.get(5, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof ConnectException);
+        }
+        assertEquals(1, calls.get());
+    }
+
+    /**
+     * @return client answering after the test releases it, with the bill or the given exception
+     */
+    private Client slowClient(IOException failure) {
+        return (request, options) -> {
+            calls.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return Response.builder()
+                    .status(200)
+                    .request(request)
+                    .headers(Map.of())
+                    .body("{\"billId\":1}", StandardCharsets.UTF_8)
+                    .build();
+        };
+    }
+
+    private List<Future<String>> submit(SingleFlightClient client, Request.HttpMethod method, IntFunction<String> url) {
+        List<Future<String>> responses = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            Request request = Request.create(method, url.apply(i), Map.of(), null, StandardCharsets.UTF_8, null);
+            responses.add(executor.submit(() -> {
+                try (Response response = client.execute(request, new Request.Options())) {
+                    return Util.toString(response.body().asReader(StandardCharsets.UTF_8));
+                }
+            }));
+        }
+        return responses;
+    }
+
+    /**
+     * Wait until all but the first request wait for the first one.
+     */
+    private void awaitWaiting() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("collapsed") < CONCURRENT_REQUESTS - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private double count(String result) {
+        return meterRegistry.find("single.flight.client.requests").tag("result", result).counters().stream()
+                .mapToDouble(counter -> counter.count()).sum();
+    }
+}
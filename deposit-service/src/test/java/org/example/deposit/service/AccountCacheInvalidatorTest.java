@@ -0,0 +1,39 @@
+package org.example.deposit.service;
+
+import org.example.deposit.config.CacheConfig;
+import org.example.deposit.rest.AccountChangedEvent;
+import org.example.deposit.rest.AccountResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountCacheInvalidatorTest {
+
+    private AccountCacheInvalidator accountCacheInvalidator;
+
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.ACCOUNTS_CACHE);
+        cache = cacheManager.getCache(CacheConfig.ACCOUNTS_CACHE);
+        accountCacheInvalidator = new AccountCacheInvalidator(cacheManager);
+    }
+
+    @Test
+    void itShouldEvictChangedAccount() {
+        // given
+        cache.put(1L, AccountResponseDTO.builder().accountId(1L).build());
+        cache.put(2L, AccountResponseDTO.builder().accountId(2L).build());
+
+        // when
+        accountCacheInvalidator.onAccountChanged(new AccountChangedEvent(1L));
+
+        // then
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(2L)).isNotNull();
+    }
+}
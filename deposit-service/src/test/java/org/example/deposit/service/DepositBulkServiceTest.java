@@ -0,0 +1,156 @@
+package org.example.deposit.service;
+
+import org.example.deposit.controller.dto.DepositBulkItemResponseDTO;
+import org.example.deposit.controller.dto.DepositRequestDTO;
+import org.example.deposit.entity.Deposit;
+import org.example.deposit.repository.DepositRepository;
+import org.example.deposit.rest.AccountResponseDTO;
+import org.example.deposit.rest.AccountServiceClient;
+import org.example.deposit.rest.BillAdjustItemRequestDTO;
+import org.example.deposit.rest.BillResponseDTO;
+import org.example.deposit.rest.BillServiceClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DepositBulkServiceTest {
+
+    private DepositBulkService depositBulkService;
+
+    @Mock
+    private DepositRepository depositRepository;
+
+    @Mock
+    private AccountServiceClient accountServiceClient;
+
+    @Mock
+    private BillServiceClient billServiceClient;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        depositBulkService = new DepositBulkService(depositRepository, accountServiceClient, billServiceClient, outboxService, 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void itShouldDepositAllWithOneCallPerChunk() {
+        // given
+        List<DepositRequestDTO> depositRequestDTOS = List.of(
+                DepositRequestDTO.builder().billId(1L).amount(BigDecimal.valueOf(100)).build(),
+                DepositRequestDTO.builder().billId(1L).amount(BigDecimal.valueOf(50)).build(),
+                DepositRequestDTO.builder().accountId(2L).amount(BigDecimal.valueOf(10)).build()
+        );
+        when(billServiceClient.adjustAll(anyList())).thenAnswer(invocation -> {
+            List<BillAdjustItemRequestDTO> items = invocation.getArgument(0);
+            return items.stream()
+                    .map(item -> BillResponseDTO.builder().billId(item.getBillId()).account(item.getBillId() == 1L ? 1L : 2L).build())
+                    .toList();
+        });
+        when(billServiceClient.getDefaultBillsByAccountIds(List.of(2L)))
+                .thenReturn(List.of(BillResponseDTO.builder().billId(3L).account(2L).build()));
+        when(billServiceClient.getBillsByIds(List.of(1L)))
+                .thenReturn(List.of(BillResponseDTO.builder().billId(1L).account(1L).build()));
+        when(accountServiceClient.getAccountsByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream()
+                    .map(id -> AccountResponseDTO.builder().accountId(id).email("user" + id + "@gmail.com").build())
+                    .toList();
+        });
+
+        // when
+        List<DepositBulkItemResponseDTO> results = depositBulkService.depositAll(depositRequestDTOS);
+
+        // then
+        ArgumentCaptor<List<BillAdjustItemRequestDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(billServiceClient, times(2)).adjustAll(captor.capture());
+        assertThat(captor.getAllValues().get(0)).hasSize(1);
+        assertThat(captor.getAllValues().get(0).get(0).getDelta()).isEqualTo(BigDecimal.valueOf(150));
+        verify(outboxService, times(2)).saveAllWithMessages(eq(depositRepository), anyList(), anyString(), anyString(), anyList());
+        assertThat(results).extracting(DepositBulkItemResponseDTO::isAccepted).containsExactly(true, true, true);
+        assertThat(results).extracting(DepositBulkItemResponseDTO::getEmail)
+                .containsExactly("user1@gmail.com", "user1@gmail.com", "user2@gmail.com");
+        assertThat(results.get(2).getBillId()).isEqualTo(3L);
+    }
+
+    @Test
+    void itShouldRejectInvalidAndUnknownDeposits() {
+        // given
+        List<DepositRequestDTO> depositRequestDTOS = List.of(
+                DepositRequestDTO.builder().amount(BigDecimal.valueOf(100)).build(),
+                DepositRequestDTO.builder().billId(5L).amount(BigDecimal.valueOf(100)).build()
+        );
+        when(billServiceClient.getBillsByIds(List.of(5L))).thenReturn(List.of());
+
+        // when
+        List<DepositBulkItemResponseDTO> results = depositBulkService.depositAll(depositRequestDTOS);
+
+        // then
+        assertThat(results).extracting(DepositBulkItemResponseDTO::isAccepted).containsExactly(false, false);
+        assertThat(results.get(0).getError()).isEqualTo("Account is null and bill is null");
+        assertThat(results.get(1).getError()).isEqualTo("Bill with id 5 is not found");
+        verify(billServiceClient, never()).adjustAll(anyList());
+        verify(outboxService, never()).saveAllWithMessages(any(), anyList(), anyString(), anyString(), anyList());
+        verifyNoInteractions(accountServiceClient);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void itShouldNotAdjustBill_whenAccountIsNotFound() {
+        // given
+        List<DepositRequestDTO> depositRequestDTOS = List.of(
+                DepositRequestDTO.builder().billId(1L).amount(BigDecimal.valueOf(100)).build(),
+                DepositRequestDTO.builder().billId(2L).amount(BigDecimal.valueOf(50)).build()
+        );
+        when(billServiceClient.getBillsByIds(List.of(1L, 2L))).thenReturn(List.of(
+                BillResponseDTO.builder().billId(1L).account(1L).build(),
+                BillResponseDTO.builder().billId(2L).account(2L).build()));
+        when(accountServiceClient.getAccountsByIds(List.of(1L, 2L)))
+                .thenReturn(List.of(AccountResponseDTO.builder().accountId(1L).email("user1@gmail.com").build()));
+        when(billServiceClient.adjustAll(anyList()))
+                .thenReturn(List.of(BillResponseDTO.builder().billId(1L).account(1L).build()));
+
+        // when
+        List<DepositBulkItemResponseDTO> results = depositBulkService.depositAll(depositRequestDTOS);
+
+        // then
+        ArgumentCaptor<List<BillAdjustItemRequestDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(billServiceClient).adjustAll(captor.capture());
+        assertThat(captor.getValue()).extracting(BillAdjustItemRequestDTO::getBillId).containsExactly(1L);
+        assertThat(results).extracting(DepositBulkItemResponseDTO::isAccepted).containsExactly(true, false);
+        assertThat(results.get(1).getError()).isEqualTo("Account with id 2 is not found");
+        ArgumentCaptor<List<Deposit>> deposits = ArgumentCaptor.forClass(List.class);
+        verify(outboxService).saveAllWithMessages(eq(depositRepository), deposits.capture(), anyString(), anyString(), anyList());
+        assertThat(deposits.getValue()).extracting(Deposit::getBillId).containsExactly(1L);
+    }
+
+    @Test
+    void itShouldNotAdjustBills_whenAccountLookupFails() {
+        // given
+        List<DepositRequestDTO> depositRequestDTOS = List.of(
+                DepositRequestDTO.builder().billId(1L).amount(BigDecimal.valueOf(100)).build()
+        );
+        when(billServiceClient.getBillsByIds(List.of(1L)))
+                .thenReturn(List.of(BillResponseDTO.builder().billId(1L).account(1L).build()));
+        when(accountServiceClient.getAccountsByIds(List.of(1L))).thenThrow(new IllegalStateException("account-service is not available"));
+
+        // when
+        // then
+        assertThatThrownBy(() -> depositBulkService.depositAll(depositRequestDTOS)).isInstanceOf(IllegalStateException.class);
+        verify(billServiceClient, never()).adjustAll(anyList());
+    }
+}
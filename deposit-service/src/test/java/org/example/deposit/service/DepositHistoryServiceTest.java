@@ -0,0 +1,90 @@
+package org.example.deposit.service;
+
+import org.example.deposit.controller.dto.DepositHistoryPageDTO;
+import org.example.deposit.entity.Deposit;
+import org.example.deposit.exception.DepositServiceException;
+import org.example.deposit.repository.DepositHistoryFilter;
+import org.example.deposit.repository.DepositRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DepositHistoryServiceTest {
+
+    private static final OffsetDateTime DATE = OffsetDateTime.of(2022, 7, 9, 22, 10, 30, 123456000, ZoneOffset.UTC);
+
+    private DepositHistoryService depositHistoryService;
+
+    @Mock
+    private DepositRepository depositRepository;
+
+    @BeforeEach
+    void setUp() {
+        depositHistoryService = new DepositHistoryService(depositRepository, 100, 500);
+    }
+
+    @Test
+    void itShouldReturnNextCursor_whenThereAreMoreDeposits() {
+        // given
+        DepositHistoryFilter filter = DepositHistoryFilter.builder().billId(1L).build();
+        when(depositRepository.findHistory(eq(filter), isNull(), isNull(), eq(2)))
+                .thenReturn(List.of(getDeposit(3L), getDeposit(2L)));
+        when(depositRepository.findHistory(filter, DATE, 3L, 2)).thenReturn(List.of(getDeposit(2L)));
+
+        // when
+        DepositHistoryPageDTO firstPage = depositHistoryService.getHistory(filter, null, 1);
+        DepositHistoryPageDTO secondPage = depositHistoryService.getHistory(filter, firstPage.getNextCursor(), 1);
+
+        // then
+        assertThat(firstPage.getDeposits()).hasSize(1);
+        assertThat(firstPage.getNextCursor()).isNotNull();
+        assertThat(secondPage.getDeposits().get(0).getDepositId()).isEqualTo(2L);
+        assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    void itShouldNotGetHistory_whenCursorIsNotValid() {
+        // given
+        DepositHistoryFilter filter = DepositHistoryFilter.builder().build();
+
+        // when
+        // then
+        assertThatThrownBy(() -> depositHistoryService.getHistory(filter, "not a cursor", 10))
+                .isInstanceOf(DepositServiceException.class)
+                .hasMessageContaining("is not valid");
+        verify(depositRepository, never()).findHistory(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void itShouldNotGetHistory_whenLimitIsTooBig() {
+        // given
+        DepositHistoryFilter filter = DepositHistoryFilter.builder().build();
+
+        // when
+        // then
+        assertThatThrownBy(() -> depositHistoryService.getHistory(filter, null, 101))
+                .isInstanceOf(DepositServiceException.class)
+                .hasMessageContaining("Limit should be between 1 and 100");
+    }
+
+    private static Deposit getDeposit(Long depositId) {
+        Deposit deposit = new Deposit(BigDecimal.valueOf(100), 1L, 1L, DATE, "dmitry@gmail.com");
+        deposit.setDepositId(depositId);
+        return deposit;
+    }
+}
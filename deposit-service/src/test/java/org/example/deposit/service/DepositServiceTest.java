@@ -1,36 +1,40 @@
 package org.example.deposit.service;
 
+import feign.FeignException;
+import feign.Request;
 import org.example.deposit.controller.dto.DepositResponseDTO;
 import org.example.deposit.exception.DepositServiceException;
 import org.example.deposit.repository.DepositRepository;
 import org.example.deposit.rest.*;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 
 @ExtendWith(MockitoExtension.class)
 class DepositServiceTest {
 
-    @InjectMocks
     private DepositService depositService;
 
     @Mock
@@ -43,13 +47,19 @@ class DepositServiceTest {
     private BillServiceClient billServiceClient;
 
     @Mock
-    private RabbitTemplate rabbitTemplate;
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        // calls of the downstream executor run on the test thread
+        depositService = new DepositService(depositRepository, accountServiceClient, billServiceClient, outboxService, Runnable::run);
+    }
 
     @Test
     void itShouldCreateDepositWhenBillId() {
         // given
         BillResponseDTO billResponseDTO = createBillResponseDTO();
-        when(billServiceClient.getBillById(anyLong())).thenReturn(billResponseDTO);
+        when(billServiceClient.adjust(anyLong(), any())).thenReturn(billResponseDTO);
 
 
         AccountResponseDTO accountResponseDTO = createAccountResponseDTO();
@@ -63,17 +73,50 @@ class DepositServiceTest {
         DepositResponseDTO deposit = depositService.deposit(accountId, billId, amount);
 
         // then
-        verify(billServiceClient, times(1)).update(anyLong(), any());
-        verify(depositRepository, times(1)).save(any());
+        verify(billServiceClient, times(1)).adjust(anyLong(), any());
+        verify(outboxService, times(1)).saveWithMessage(eq(depositRepository), any(), anyString(), anyString(), any());
         assertThat(deposit.getAmount()).isEqualTo(amount);
         assertThat(deposit.getEmail()).isEqualTo(email);
     }
 
+    @Test
+    void itShouldLookupOwnerOfBill_whenSentAccountDoesNotOwnBill() {
+        // given
+        BillResponseDTO billResponseDTO = createBillResponseDTO();
+        when(billServiceClient.adjust(anyLong(), any())).thenReturn(billResponseDTO);
+        when(accountServiceClient.getAccountById(2L)).thenReturn(AccountResponseDTO.builder().accountId(2L).email("other@gmail.com").build());
+        when(accountServiceClient.getAccountById(1L)).thenReturn(createAccountResponseDTO());
+
+        // when
+        DepositResponseDTO deposit = depositService.deposit(2L, 1L, BigDecimal.valueOf(100));
+
+        // then
+        verify(accountServiceClient, times(1)).getAccountById(1L);
+        assertThat(deposit.getEmail()).isEqualTo("dmitry@gmail.com");
+    }
+
+    @Test
+    void itShouldNotCreateDeposit_whenAccountLookupFails() {
+        // given
+        BillResponseDTO defaultBill = createBillResponseDTO();
+        when(billServiceClient.getDefaultBillByAccountId(1L)).thenReturn(defaultBill);
+        Request request = Request.create(Request.HttpMethod.GET, "accounts/1", Map.of(), null, StandardCharsets.UTF_8, null);
+        when(accountServiceClient.getAccountById(1L)).thenThrow(new FeignException.NotFound("not found", request, null, null));
+
+        // when
+        // then
+        assertThatThrownBy(() -> depositService.deposit(1L, null, BigDecimal.valueOf(100)))
+                .isInstanceOf(FeignException.NotFound.class);
+        verify(billServiceClient, never()).adjust(anyLong(), any());
+        verify(outboxService, times(0)).saveWithMessage(any(), any(), anyString(), anyString(), any());
+    }
+
     @ParameterizedTest
     @MethodSource(value = "createSeveralValidAccountResponseDTO")
     void itShouldCreateDeposit_WhenAccountId(AccountResponseDTO accountResponseDTO, List<BillResponseDTO> billResponseDTOS) {
         // given
-        when(billServiceClient.getBillsByAccountId(anyLong())).thenReturn(billResponseDTOS);
+        BillResponseDTO defaultBill = billResponseDTOS.stream().filter(BillResponseDTO::isDefault).findAny().orElseThrow();
+        when(billServiceClient.getDefaultBillByAccountId(anyLong())).thenReturn(defaultBill);
 
         when(accountServiceClient.getAccountById(anyLong())).thenReturn(accountResponseDTO);
 
@@ -85,8 +128,8 @@ class DepositServiceTest {
         DepositResponseDTO deposit = depositService.deposit(accountId, billId, amount);
 
         // then
-        verify(billServiceClient, times(1)).update(anyLong(), any());
-        verify(depositRepository, times(1)).save(any());
+        verify(billServiceClient, times(1)).adjust(anyLong(), any());
+        verify(outboxService, times(1)).saveWithMessage(eq(depositRepository), any(), anyString(), anyString(), any());
         assertThat(deposit.getAmount()).isEqualTo(amount);
         assertThat(deposit.getEmail()).isEqualTo(email);
     }
@@ -95,7 +138,8 @@ class DepositServiceTest {
     @MethodSource(value = "createSeveralNonValidAccountResponseDTO")
     void itShouldNotCreateDeposit_WhenAccountIsNotValid(AccountResponseDTO accountResponseDTO, List<BillResponseDTO> billResponseDTOS) {
         // given
-        when(billServiceClient.getBillsByAccountId(anyLong())).thenReturn(billResponseDTOS);
+        Request request = Request.create(Request.HttpMethod.GET, "bills/account/1/default", Map.of(), null, StandardCharsets.UTF_8, null);
+        when(billServiceClient.getDefaultBillByAccountId(anyLong())).thenThrow(new FeignException.BadRequest("bad request", request, null, null));
 
         // when
         BigDecimal amount = BigDecimal.valueOf(100);
@@ -106,8 +150,8 @@ class DepositServiceTest {
         assertThatThrownBy(() -> depositService.deposit(accountId, billId, amount))
                 .isInstanceOf(DepositServiceException.class)
                 .hasMessageContaining("Unable to find default bill for account with id " + accountId);
-        verify(billServiceClient, times(0)).update(anyLong(), any());
-        verify(depositRepository, times(0)).save(any());
+        verify(billServiceClient, times(0)).adjust(anyLong(), any());
+        verify(outboxService, times(0)).saveWithMessage(any(), any(), anyString(), anyString(), any());
     }
 
     private AccountResponseDTO createAccountResponseDTO() {
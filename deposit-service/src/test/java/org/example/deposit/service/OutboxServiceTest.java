@@ -0,0 +1,60 @@
+package org.example.deposit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.deposit.controller.dto.DepositResponseDTO;
+import org.example.deposit.entity.Deposit;
+import org.example.deposit.entity.OutboxMessage;
+import org.example.deposit.repository.DepositRepository;
+import org.example.deposit.repository.OutboxMessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    private OutboxService outboxService;
+
+    @Mock
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Mock
+    private DepositRepository depositRepository;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = new OutboxService(outboxMessageRepository, new Jackson2JsonMessageConverter(new ObjectMapper()));
+    }
+
+    @Test
+    void itShouldSaveEntityAndJsonMessage() {
+        // given
+        Deposit deposit = new Deposit(BigDecimal.valueOf(100), 1L, 1L, OffsetDateTime.now(), "dmitry@gmail.com");
+        DepositResponseDTO depositResponseDTO = new DepositResponseDTO(BigDecimal.valueOf(100), "dmitry@gmail.com");
+
+        // when
+        outboxService.saveWithMessage(depositRepository, deposit, "exchange", "key", depositResponseDTO);
+
+        // then
+        ArgumentCaptor<OutboxMessage> captor = ArgumentCaptor.forClass(OutboxMessage.class);
+        verify(depositRepository, times(1)).save(deposit);
+        verify(outboxMessageRepository, times(1)).save(captor.capture());
+        assertThat(captor.getValue().getExchange()).isEqualTo("exchange");
+        assertThat(captor.getValue().getRoutingKey()).isEqualTo("key");
+        assertThat(captor.getValue().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+        assertThat(new String(captor.getValue().getPayload(), StandardCharsets.UTF_8))
+                .isEqualTo("{\"amount\":100,\"email\":\"dmitry@gmail.com\"}");
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of response bodies by request path.
+ * <p>
+ * An entry is fresh for the configured time to live, after that it is kept for revalidation with its ETag.
+ * Every fetch gets a token that a purge drops, so a response fetched before the purge is not stored after it.
+ */
+@Component
+public class EdgeCache {
+
+    private final Cache<String, Entry> entries;
+    private final Map<String, Object> fetches = new ConcurrentHashMap<>();
+    private final long timeToLiveNanos;
+
+    public EdgeCache(@Value("${gateway.edge-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${gateway.edge-cache.time-to-live:60s}") Duration timeToLive) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+        this.timeToLiveNanos = timeToLive.toNanos();
+    }
+
+    public Entry get(String key) {
+        return entries.getIfPresent(key);
+    }
+
+    public boolean isFresh(Entry entry) {
+        return System.nanoTime() - entry.getStoredAt() < timeToLiveNanos;
+    }
+
+    /**
+     * Start fetching a response from downstream.
+     *
+     * @param key request path
+     * @return token to store the response with
+     */
+    public Object startFetch(String key) {
+        Object token = new Object();
+        fetches.put(key, token);
+        return token;
+    }
+
+    /**
+     * Forget the fetch if its response has not been stored.
+     *
+     * @param key request path
+     * @param token token from {@link #startFetch(String)}
+     */
+    public void endFetch(String key, Object token) {
+        fetches.remove(key, token);
+    }
+
+    /**
+     * Store the response unless the path has been purged or fetched again since the fetch started.
+     *
+     * @param key request path
+     * @param token token from {@link #startFetch(String)}
+     * @param entry response
+     * @return true if the response has been stored
+     */
+    public boolean put(String key, Object token, Entry entry) {
+        return entries.asMap().compute(key, (k, previous) -> fetches.remove(key, token) ? entry : previous) == entry;
+    }
+
+    public void purge(String key) {
+        entries.asMap().compute(key, (k, previous) -> {
+            fetches.remove(key);
+            return null;
+        });
+    }
+
+    @Getter
+    public static final class Entry {
+
+        private final byte[] body;
+        private final String contentType;
+        private final String etag;
+        private final long storedAt;
+
+        public Entry(byte[] body, String contentType, String etag) {
+            this(body, contentType, etag, System.nanoTime());
+        }
+
+        private Entry(byte[] body, String contentType, String etag, long storedAt) {
+            this.body = body;
+            this.contentType = contentType;
+            this.etag = etag;
+            this.storedAt = storedAt;
+        }
+
+        /**
+         * @return the same response, fresh again after downstream answered that it has not been modified
+         */
+        public Entry revalidated() {
+            return new Entry(body, contentType, etag);
+        }
+    }
+}
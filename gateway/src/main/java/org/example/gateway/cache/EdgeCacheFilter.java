@@ -0,0 +1,205 @@
+package org.example.gateway.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Serves GET /accounts/{id} and /bills/{id} from the {@link EdgeCache}.
+ * <p>
+ * A fresh entry is answered without calling downstream, a stale entry is revalidated with If-None-Match,
+ * so downstream answers 304 without a body while the response has not changed. Hits, revalidations and misses,
+ * downstream latency and the latency saved by hits are recorded per route.
+ */
+@Component
+public class EdgeCacheFilter implements GlobalFilter, Ordered {
+
+    private static final Pattern CACHEABLE_PATH = Pattern.compile("/(accounts|bills)/\\d+");
+
+    private final EdgeCache edgeCache;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteMetrics> routeMetrics = new ConcurrentHashMap<>();
+
+    @Autowired
+    public EdgeCacheFilter(EdgeCache edgeCache, MeterRegistry meterRegistry) {
+        this.edgeCache = edgeCache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs before {@link NettyWriteResponseFilter}, so the response it writes goes through the cache.
+     */
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String key = request.getPath().value();
+        if (request.getMethod() != HttpMethod.GET || !request.getQueryParams().isEmpty()
+                || !CACHEABLE_PATH.matcher(key).matches()) {
+            return chain.filter(exchange);
+        }
+        RouteMetrics metrics = metricsOf(exchange);
+        String clientEtag = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        EdgeCache.Entry entry = edgeCache.get(key);
+        if (entry != null && edgeCache.isFresh(entry)) {
+            metrics.hit();
+            return write(exchange.getResponse(), entry, clientEtag);
+        }
+
+        ServerHttpRequest forwarded = request.mutate()
+                .headers(headers -> {
+                    headers.remove(HttpHeaders.IF_NONE_MATCH);
+                    if (entry != null) {
+                        headers.setIfNoneMatch(entry.getEtag());
+                    }
+                })
+                .build();
+        Object token = edgeCache.startFetch(key);
+        long start = System.nanoTime();
+        ServerHttpResponse response = new ServerHttpResponseDecorator(exchange.getResponse()) {
+
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                metrics.upstream.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                HttpStatus status = getStatusCode();
+                if (status == HttpStatus.NOT_MODIFIED && entry != null) {
+                    metrics.revalidated();
+                    EdgeCache.Entry revalidated = entry.revalidated();
+                    edgeCache.put(key, token, revalidated);
+                    return Flux.from(body).doOnNext(DataBufferUtils::release)
+                            .then(write(getDelegate(), revalidated, clientEtag));
+                }
+                metrics.miss();
+                String etag = getHeaders().getETag();
+                if (status != HttpStatus.OK || etag == null) {
+                    return super.writeWith(body);
+                }
+                return DataBufferUtils.join(body).flatMap(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    String contentType = getHeaders().getContentType() == null ? null : getHeaders().getContentType().toString();
+                    EdgeCache.Entry fetched = new EdgeCache.Entry(bytes, contentType, etag);
+                    edgeCache.put(key, token, fetched);
+                    return write(getDelegate(), fetched, clientEtag);
+                });
+            }
+        };
+        return chain.filter(exchange.mutate().request(forwarded).response(response).build())
+                .doFinally(signal -> edgeCache.endFetch(key, token));
+    }
+
+    private Mono<Void> write(ServerHttpResponse response, EdgeCache.Entry entry, String clientEtag) {
+        HttpHeaders headers = response.getHeaders();
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.setETag(entry.getEtag());
+        if (entry.getEtag().equals(clientEtag)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        if (entry.getContentType() != null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, entry.getContentType());
+        }
+        headers.setContentLength(entry.getBody().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(entry.getBody())));
+    }
+
+    private RouteMetrics metricsOf(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route == null ? "unknown" : route.getId();
+        return routeMetrics.computeIfAbsent(routeId, id -> new RouteMetrics(id, meterRegistry));
+    }
+
+    private static final class RouteMetrics {
+
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong requests = new AtomicLong();
+        private final Counter hitCounter;
+        private final Counter revalidatedCounter;
+        private final Counter missCounter;
+        private final Counter latencySaved;
+        private final Timer upstream;
+
+        private RouteMetrics(String routeId, MeterRegistry meterRegistry) {
+            this.hitCounter = requestCounter(routeId, "hit", meterRegistry);
+            this.revalidatedCounter = requestCounter(routeId, "revalidated", meterRegistry);
+            this.missCounter = requestCounter(routeId, "miss", meterRegistry);
+            this.latencySaved = Counter.builder("gateway.edge.cache.latency.saved")
+                    .description("Downstream latency not waited for thanks to cache hits, estimated by mean downstream latency")
+                    .baseUnit("seconds")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+            this.upstream = Timer.builder("gateway.edge.cache.upstream")
+                    .description("Latency of cacheable requests forwarded downstream")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.edge.cache.hit.ratio", this, RouteMetrics::hitRatio)
+                    .description("Share of cacheable requests answered without calling downstream")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+        }
+
+        private static Counter requestCounter(String routeId, String result, MeterRegistry meterRegistry) {
+            return Counter.builder("gateway.edge.cache.requests")
+                    .tag("route", routeId)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+
+        void hit() {
+            hits.incrementAndGet();
+            requests.incrementAndGet();
+            hitCounter.increment();
+            latencySaved.increment(upstream.mean(TimeUnit.SECONDS));
+        }
+
+        void revalidated() {
+            requests.incrementAndGet();
+            revalidatedCounter.increment();
+        }
+
+        void miss() {
+            requests.incrementAndGet();
+            missCounter.increment();
+        }
+
+        double hitRatio() {
+            long total = requests.get();
+            return total == 0 ? 0 : (double) hits.get() / total;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.gateway.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.gateway.rest.AccountChangedEvent;
+import org.example.gateway.rest.BillChangedEvent;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class EdgeCacheInvalidator {
+
+    private final EdgeCache edgeCache;
+
+    @Autowired
+    public EdgeCacheInvalidator(EdgeCache edgeCache) {
+        this.edgeCache = edgeCache;
+    }
+
+    /**
+     * Drop cached account when account-service updates or deletes it.
+     *
+     * @param event account changed event
+     */
+    @RabbitListener(queues = "#{accountChangedQueue.name}")
+    public void onAccountChanged(AccountChangedEvent event) {
+        edgeCache.purge("/accounts/" + event.getAccountId());
+        log.info("Purge account with id " + event.getAccountId() + " from edge cache");
+    }
+
+    /**
+     * Drop cached bills when bill-service updates or deletes them.
+     *
+     * @param event bill changed event
+     */
+    @RabbitListener(queues = "#{billChangedQueue.name}")
+    public void onBillChanged(BillChangedEvent event) {
+        event.getBillIds().forEach(billId -> edgeCache.purge("/bills/" + billId));
+        log.debug("Purge bills with ids " + event.getBillIds() + " from edge cache");
+    }
+}
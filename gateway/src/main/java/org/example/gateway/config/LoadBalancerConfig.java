@@ -0,0 +1,12 @@
+package org.example.gateway.config;
+
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Calls to other services are balanced by latency instead of round-robin, see {@link PeakEwmaLoadBalancer}.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
@@ -0,0 +1,66 @@
+package org.example.gateway.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    public static final String FANOUT_EXCHANGE_ACCOUNT_CHANGED = "js.account.changed.exchange";
+    public static final String FANOUT_EXCHANGE_BILL_CHANGED = "js.bill.changed.exchange";
+
+    /**
+     * Converter for RabbitMQ messages, incoming messages are read into listener parameter type.
+     */
+    @Bean
+    public MessageConverter messageConverter(ObjectMapper objectMapper) {
+        Jackson2JsonMessageConverter messageConverter = new Jackson2JsonMessageConverter(objectMapper);
+        messageConverter.setAlwaysConvertToInferredType(true);
+        return messageConverter;
+    }
+
+    @Bean
+    public FanoutExchange accountChangedExchange() {
+        return new FanoutExchange(FANOUT_EXCHANGE_ACCOUNT_CHANGED);
+    }
+
+    @Bean
+    public FanoutExchange billChangedExchange() {
+        return new FanoutExchange(FANOUT_EXCHANGE_BILL_CHANGED);
+    }
+
+    /**
+     * Every instance has its own queues, so every instance purges its own edge cache.
+     */
+    @Bean
+    public Queue accountChangedQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Queue billChangedQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding accountChangedBinding() {
+        return BindingBuilder
+                .bind(accountChangedQueue())
+                .to(accountChangedExchange());
+    }
+
+    @Bean
+    public Binding billChangedBinding() {
+        return BindingBuilder
+                .bind(billChangedQueue())
+                .to(billChangedExchange());
+    }
+}
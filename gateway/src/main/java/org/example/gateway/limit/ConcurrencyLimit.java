@@ -0,0 +1,98 @@
+package org.example.gateway.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limit of requests in flight to a route, adapted to the latency of the route (gradient algorithm).
+ * <p>
+ * The lowest latency seen is taken for the latency without queueing. While latency stays near it the limit
+ * grows by about the square root of the limit, when latency rises because downstream queues up requests
+ * the limit shrinks by the ratio of the two, and on a timeout or overload response it is cut by a tenth.
+ * Requests over the limit are shed at once, instead of waiting in downstream queues until they time out.
+ */
+public class ConcurrencyLimit {
+
+    /**
+     * Latency up to this multiple of the latency without queueing does not lower the limit.
+     */
+    static final double TOLERANCE = 1.5;
+
+    static final double SMOOTHING = 0.2;
+    static final double BACKOFF = 0.9;
+
+    /**
+     * Number of samples to learn a higher latency without queueing over, for example after downstream
+     * got slower for good. It is learned only while the limit is at its minimum, so queueing is not learned.
+     */
+    static final int WINDOW = 100;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double noLoadLatency;
+
+    public ConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * @return true if the request may go downstream, it must then be {@link #release released}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param latencyNanos latency of the request
+     * @param dropped true if the request timed out or downstream answered it is overloaded
+     */
+    public void release(long latencyNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        update(latencyNanos, dropped, current);
+    }
+
+    /**
+     * Release a request without a sample, for example when the client cancelled it.
+     */
+    public void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void update(long latencyNanos, boolean dropped, int inFlight) {
+        if (dropped) {
+            limit = Math.max(minLimit, limit * BACKOFF);
+            return;
+        }
+        if (noLoadLatency == 0 || latencyNanos < noLoadLatency) {
+            noLoadLatency = latencyNanos;
+        } else if (limit <= minLimit) {
+            noLoadLatency += (latencyNanos - noLoadLatency) / WINDOW;
+        }
+        // limit is not reached, latency tells nothing about a higher limit
+        if (inFlight * 2 < limit) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * noLoadLatency / latencyNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.gateway.limit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps requests in flight to every route within its {@link ConcurrencyLimit},
+ * requests over the limit are answered 503 Service Unavailable.
+ */
+@Component
+@ConditionalOnProperty(value = "gateway.concurrency-limit.enabled", matchIfMissing = true)
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ConcurrencyLimit> limits = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ConcurrencyLimitFilter(@Value("${gateway.concurrency-limit.initial-limit:20}") int initialLimit,
+                                  @Value("${gateway.concurrency-limit.min-limit:5}") int minLimit,
+                                  @Value("${gateway.concurrency-limit.max-limit:500}") int maxLimit,
+                                  MeterRegistry meterRegistry) {
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs after the edge cache, so only requests going downstream are limited.
+     */
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        ConcurrencyLimit limit = limits.computeIfAbsent(route.getId(), this::newLimit);
+        if (!limit.tryAcquire()) {
+            meterRegistry.counter("gateway.requests.shed", "route", route.getId(), "reason", "concurrency-limit").increment();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return response.setComplete();
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    // a request cancelled by the client tells nothing about downstream
+                    if (signal == SignalType.CANCEL) {
+                        limit.cancel();
+                    } else {
+                        limit.release(System.nanoTime() - start, isDropped(signal, exchange.getResponse()));
+                    }
+                });
+    }
+
+    /**
+     * A timeout or an overloaded downstream lowers the limit.
+     */
+    private static boolean isDropped(SignalType signal, ServerHttpResponse response) {
+        if (signal == SignalType.ON_ERROR) {
+            return true;
+        }
+        HttpStatus status = response.getStatusCode();
+        return status == HttpStatus.SERVICE_UNAVAILABLE || status == HttpStatus.GATEWAY_TIMEOUT
+                || status == HttpStatus.TOO_MANY_REQUESTS;
+    }
+
+    private ConcurrencyLimit newLimit(String routeId) {
+        ConcurrencyLimit limit = new ConcurrencyLimit(initialLimit, minLimit, maxLimit);
+        Gauge.builder("gateway.concurrency.limit", limit, ConcurrencyLimit::getLimit)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in.flight", limit, ConcurrencyLimit::getInFlight)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return limit;
+    }
+}
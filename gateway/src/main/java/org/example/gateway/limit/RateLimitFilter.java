@@ -0,0 +1,103 @@
+package org.example.gateway.limit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers 429 Too Many Requests when a client has used up its {@link RateLimiter} tokens.
+ * Every client address has its own tokens. The gateway does not validate API keys, so a key can not replace
+ * the address; requests with an API key take a token of the key as well, which limits a key used from many addresses.
+ * Behind a load balancer the client address is taken from X-Forwarded-For, but only when the request comes from
+ * a trusted proxy, since any client can send the header.
+ */
+@Component
+@ConditionalOnProperty(value = "gateway.rate-limit.enabled", matchIfMissing = true)
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    public static final String API_KEY_HEADER = "X-Api-Key";
+    public static final String FORWARDED_FOR_HEADER = "X-Forwarded-For";
+
+    private final RateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> trustedProxies;
+
+    @Autowired
+    public RateLimitFilter(@Value("${gateway.rate-limit.replenish-rate:50}") int replenishRate,
+                           @Value("${gateway.rate-limit.burst-capacity:100}") int burstCapacity,
+                           @Value("${gateway.rate-limit.maximum-clients:100000}") long maximumClients,
+                           @Value("${gateway.rate-limit.trusted-proxies:}") List<String> trustedProxies,
+                           MeterRegistry meterRegistry) {
+        this.rateLimiter = new RateLimiter(replenishRate, burstCapacity, maximumClients);
+        this.meterRegistry = meterRegistry;
+        this.trustedProxies = new HashSet<>(trustedProxies);
+    }
+
+    /**
+     * Runs before the edge cache, so cached responses are counted too.
+     */
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        long wait = rateLimiter.tryAcquire("address:" + addressOf(request));
+        String apiKey = request.getHeaders().getFirst(API_KEY_HEADER);
+        if (wait == 0 && apiKey != null) {
+            wait = rateLimiter.tryAcquire("key:" + apiKey);
+        }
+        if (wait == 0) {
+            return chain.filter(exchange);
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        meterRegistry.counter("gateway.requests.shed",
+                "route", route == null ? "unknown" : route.getId(), "reason", "rate-limit").increment();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(TimeUnit.NANOSECONDS.toSeconds(wait) + 1));
+        return response.setComplete();
+    }
+
+    /**
+     * Client address of the request. When the request comes from a trusted proxy, X-Forwarded-For is read from
+     * right to left and the first address which is not a trusted proxy is the client, addresses left of it
+     * are sent by the client and can not be trusted.
+     */
+    private String addressOf(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String address = remoteAddress == null ? "unknown" : remoteAddress.getAddress().getHostAddress();
+        List<String> forwardedFor = request.getHeaders().getOrEmpty(FORWARDED_FOR_HEADER);
+        for (int i = forwardedFor.size() - 1; i >= 0 && trustedProxies.contains(address); i--) {
+            String[] hops = forwardedFor.get(i).split(",");
+            for (int j = hops.length - 1; j >= 0 && trustedProxies.contains(address); j--) {
+                String hop = hops[j].trim();
+                if (!hop.isEmpty())
+                    address = hop;
+            }
+        }
+        return address;
+    }
+}
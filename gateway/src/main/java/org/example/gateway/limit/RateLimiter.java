@@ -0,0 +1,64 @@
+package org.example.gateway.limit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per client, kept as the time the bucket will be full again (generic cell rate algorithm),
+ * so taking a token is a single compare-and-set and clients do not contend with each other.
+ * <p>
+ * A bucket not used for longer than it takes to refill is full anyway, so it is dropped from the map.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier clock;
+    private final Cache<String, AtomicLong> buckets;
+
+    /**
+     * @param replenishRate tokens added per second
+     * @param burstCapacity tokens a bucket holds
+     * @param maximumClients buckets kept at most
+     */
+    public RateLimiter(int replenishRate, int burstCapacity, long maximumClients) {
+        this(replenishRate, burstCapacity, maximumClients, System::nanoTime);
+    }
+
+    RateLimiter(int replenishRate, int burstCapacity, long maximumClients, LongSupplier clock) {
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / replenishRate;
+        this.burstNanos = intervalNanos * burstCapacity;
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumClients)
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .build();
+    }
+
+    /**
+     * Take a token from the bucket of the client.
+     *
+     * @param client API key or address of the client
+     * @return 0 if the token has been taken, otherwise nanoseconds until the next token is added
+     */
+    public long tryAcquire(String client) {
+        AtomicLong fullAt = buckets.get(client, key -> new AtomicLong(clock.getAsLong()));
+        while (true) {
+            long now = clock.getAsLong();
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
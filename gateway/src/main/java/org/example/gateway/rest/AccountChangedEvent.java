@@ -0,0 +1,15 @@
+package org.example.gateway.rest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Event from account-service about updated or deleted account.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountChangedEvent {
+    private Long accountId;
+}
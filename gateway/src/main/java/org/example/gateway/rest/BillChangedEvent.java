@@ -0,0 +1,17 @@
+package org.example.gateway.rest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Event from bill-service about updated or deleted bills.
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BillChangedEvent {
+    private List<Long> billIds;
+}
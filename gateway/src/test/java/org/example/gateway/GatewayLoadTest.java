@@ -0,0 +1,111 @@
+package org.example.gateway;
+
+import io.netty.channel.ChannelOption;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Load test for the proxy: a slow downstream holds every request for {@link #HOLD}, so the number of requests
+ * held at the same time shows how many connections the gateway keeps open at the heap the test JVM runs with.
+ * Runs with {@code gradle loadTest} only, not with the unit tests.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // the test measures the proxy itself, all requests come from one client to one route
+        "gateway.rate-limit.enabled=false",
+        "gateway.concurrency-limit.enabled=false"
+})
+class GatewayLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(GatewayLoadTest.class);
+
+    private static final int CONCURRENT_REQUESTS = 2000;
+    private static final Duration HOLD = Duration.ofSeconds(10);
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private static final DisposableServer downstream = HttpServer.create()
+            .port(0)
+            .handle((request, response) -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return Mono.delay(HOLD)
+                        .then(response.sendString(Mono.just("{\"depositId\":1}")).then())
+                        .doFinally(signal -> inFlight.decrementAndGet());
+            })
+            .bindNow();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void downstreamInstance(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.deposit-service[0].uri",
+                () -> "http://localhost:" + downstream.port());
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "deposit-service");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "lb://deposit-service");
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/deposits/**");
+        registry.add("spring.cloud.gateway.routes[0].metadata.response-timeout", () -> 20000);
+    }
+
+    @AfterAll
+    static void stopDownstream() {
+        downstream.disposeNow();
+    }
+
+    @Test
+    public void holdsAllConcurrentRequestsWhileDownstreamIsSlow() {
+        // given
+        HttpClient client = HttpClient.create(ConnectionProvider.builder("load")
+                        .maxConnections(CONCURRENT_REQUESTS)
+                        .pendingAcquireMaxCount(-1)
+                        .build())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 20000)
+                .baseUrl("http://localhost:" + port);
+        // the first request resolves the instance and warms up both connection pools
+        client.get().uri("/deposits/history?email=warmup@example.com").responseSingle((response, body) -> body).block();
+        maxInFlight.set(0);
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        // when
+        long start = System.nanoTime();
+        List<Integer> statuses = Flux.range(0, CONCURRENT_REQUESTS)
+                .flatMap(i -> client.get()
+                                .uri("/deposits/history?email=load" + i + "@example.com")
+                                .responseSingle((response, body) -> body.then(Mono.just(response.status().code()))),
+                        CONCURRENT_REQUESTS)
+                .collectList()
+                .block(Duration.ofSeconds(60));
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // then
+        long ok = statuses.stream().filter(status -> status == 200).count();
+        long heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        log.info("Requests: " + CONCURRENT_REQUESTS + ", ok: " + ok + ", held at once: " + maxInFlight.get()
+                + ", elapsed: " + elapsedMillis + " ms, threads: " + threadsBefore + " -> "
+                + ManagementFactory.getThreadMXBean().getPeakThreadCount() + " peak, heap used: "
+                + heapUsed / (1024 * 1024) + " MB of " + Runtime.getRuntime().maxMemory() / (1024 * 1024) + " MB");
+        assertEquals(CONCURRENT_REQUESTS, ok);
+        assertEquals(CONCURRENT_REQUESTS, maxInFlight.get());
+    }
+}
@@ -0,0 +1,198 @@
+package org.example.gateway.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.example.gateway.rest.AccountChangedEvent;
+import org.example.gateway.rest.BillChangedEvent;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the gateway in front of a downstream stub that versions every resource and answers
+ * If-None-Match with 304 like the ETag filter of account-service and bill-service.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class EdgeCacheFilterTest {
+
+    private static final Map<String, AtomicInteger> versions = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicInteger> notModified = new ConcurrentHashMap<>();
+
+    private static final DisposableServer downstream = HttpServer.create()
+            .port(0)
+            .handle((request, response) -> {
+                String path = "/" + request.path();
+                calls.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+                int version = versions.computeIfAbsent(path, p -> new AtomicInteger(1)).get();
+                String etag = "\"" + version + "\"";
+                if (etag.equals(request.requestHeaders().get(HttpHeaderNames.IF_NONE_MATCH))) {
+                    notModified.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+                    return response.status(HttpResponseStatus.NOT_MODIFIED)
+                            .header(HttpHeaderNames.ETAG, etag)
+                            .send();
+                }
+                return response.header(HttpHeaderNames.ETAG, etag)
+                        .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                        .sendString(Mono.just("{\"path\":\"" + path + "\",\"version\":" + version + "}"))
+                        .then();
+            })
+            .bindNow();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private EdgeCacheInvalidator edgeCacheInvalidator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void downstreamInstances(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.account-service[0].uri",
+                () -> "http://localhost:" + downstream.port());
+        registry.add("spring.cloud.discovery.client.simple.instances.bill-service[0].uri",
+                () -> "http://localhost:" + downstream.port());
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "account-service");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "lb://account-service");
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/accounts/**");
+        registry.add("spring.cloud.gateway.routes[1].id", () -> "bill-service");
+        registry.add("spring.cloud.gateway.routes[1].uri", () -> "lb://bill-service");
+        registry.add("spring.cloud.gateway.routes[1].predicates[0]", () -> "Path=/bills/**");
+        registry.add("gateway.edge-cache.time-to-live", () -> "1s");
+    }
+
+    @AfterAll
+    static void stopDownstream() {
+        downstream.disposeNow();
+    }
+
+    @Test
+    public void itShouldAnswerRepeatedReadsFromCache() {
+        // given
+        double hitsBefore = requests("hit");
+        double missesBefore = requests("miss");
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            get("/accounts/1", "{\"path\":\"/accounts/1\",\"version\":1}");
+        }
+
+        // then
+        assertEquals(1, calls.get("/accounts/1").get());
+        assertEquals(9, requests("hit") - hitsBefore, 0);
+        assertEquals(1, requests("miss") - missesBefore, 0);
+        double hitRatio = requests("hit") / (requests("hit") + requests("revalidated") + requests("miss"));
+        assertEquals(hitRatio, meterRegistry.get("gateway.edge.cache.hit.ratio")
+                .tag("route", "account-service").gauge().value(), 0.001);
+    }
+
+    @Test
+    public void itShouldFetchAccountAgain_whenAccountChanged() {
+        // given
+        get("/accounts/2", "{\"path\":\"/accounts/2\",\"version\":1}");
+        versions.get("/accounts/2").incrementAndGet();
+
+        // when
+        edgeCacheInvalidator.onAccountChanged(new AccountChangedEvent(2L));
+
+        // then
+        get("/accounts/2", "{\"path\":\"/accounts/2\",\"version\":2}");
+        get("/accounts/2", "{\"path\":\"/accounts/2\",\"version\":2}");
+        assertEquals(2, calls.get("/accounts/2").get());
+    }
+
+    @Test
+    public void itShouldFetchBillsAgain_whenBillsChanged() {
+        // given
+        get("/bills/3", "{\"path\":\"/bills/3\",\"version\":1}");
+        get("/bills/4", "{\"path\":\"/bills/4\",\"version\":1}");
+        versions.get("/bills/3").incrementAndGet();
+        versions.get("/bills/4").incrementAndGet();
+
+        // when
+        edgeCacheInvalidator.onBillChanged(new BillChangedEvent(List.of(3L, 4L)));
+
+        // then
+        get("/bills/3", "{\"path\":\"/bills/3\",\"version\":2}");
+        get("/bills/4", "{\"path\":\"/bills/4\",\"version\":2}");
+        assertEquals(2, calls.get("/bills/3").get());
+        assertEquals(2, calls.get("/bills/4").get());
+    }
+
+    @Test
+    public void itShouldRevalidateWithEtag_whenTimeToLiveIsOver() throws InterruptedException {
+        // given
+        get("/bills/5", "{\"path\":\"/bills/5\",\"version\":1}");
+
+        // when
+        Thread.sleep(1100);
+
+        // then
+        get("/bills/5", "{\"path\":\"/bills/5\",\"version\":1}");
+        get("/bills/5", "{\"path\":\"/bills/5\",\"version\":1}");
+        assertEquals(2, calls.get("/bills/5").get());
+        assertEquals(1, notModified.get("/bills/5").get());
+    }
+
+    @Test
+    public void itShouldAnswerNotModified_whenClientEtagMatches() {
+        // given
+        get("/accounts/6", "{\"path\":\"/accounts/6\",\"version\":1}");
+
+        // when
+        webTestClient.get()
+                .uri("/accounts/6")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1\"")
+                .exchange()
+
+                // then
+                .expectStatus().isEqualTo(HttpStatus.NOT_MODIFIED)
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody().isEmpty();
+        assertEquals(1, calls.get("/accounts/6").get());
+    }
+
+    @Test
+    public void itShouldNotCache_whenPathIsNotSingleAccountOrBill() {
+        // when
+        get("/bills/account/7", "{\"path\":\"/bills/account/7\",\"version\":1}");
+        get("/bills/account/7", "{\"path\":\"/bills/account/7\",\"version\":1}");
+
+        // then
+        assertEquals(2, calls.get("/bills/account/7").get());
+    }
+
+    private double requests(String result) {
+        return meterRegistry.find("gateway.edge.cache.requests")
+                .tags("route", "account-service", "result", result)
+                .counters().stream().mapToDouble(counter -> counter.count()).sum();
+    }
+
+    private void get(String path, String expectedBody) {
+        webTestClient.get()
+                .uri(path)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody(String.class).isEqualTo(expectedBody);
+    }
+}
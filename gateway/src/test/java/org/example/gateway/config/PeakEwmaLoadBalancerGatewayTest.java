@@ -0,0 +1,93 @@
+package org.example.gateway.config;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the gateway in front of a fast and a slow instance of one service. The balancer only learns latencies
+ * through the lifecycle hooks called by the gateway load balancer filter, without them the instances would
+ * get the same share of requests.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "gateway.rate-limit.enabled=false",
+        "gateway.concurrency-limit.enabled=false"
+})
+class PeakEwmaLoadBalancerGatewayTest {
+
+    private static final int REQUESTS = 30;
+
+    private static final AtomicInteger fastCalls = new AtomicInteger();
+    private static final AtomicInteger slowCalls = new AtomicInteger();
+
+    private static final DisposableServer fast = HttpServer.create()
+            .port(0)
+            .handle((request, response) -> {
+                fastCalls.incrementAndGet();
+                return response.sendString(Mono.just("[]")).then();
+            })
+            .bindNow();
+
+    private static final DisposableServer slow = HttpServer.create()
+            .port(0)
+            .handle((request, response) -> {
+                slowCalls.incrementAndGet();
+                return Mono.delay(Duration.ofMillis(300))
+                        .then(response.sendString(Mono.just("[]")).then());
+            })
+            .bindNow();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private LoadBalancerClientFactory loadBalancerClientFactory;
+
+    @DynamicPropertySource
+    static void downstreamInstances(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.deposit-service[0].uri",
+                () -> "http://localhost:" + fast.port());
+        registry.add("spring.cloud.discovery.client.simple.instances.deposit-service[1].uri",
+                () -> "http://localhost:" + slow.port());
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "deposit-service");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "lb://deposit-service");
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/deposits/**");
+    }
+
+    @AfterAll
+    static void stopDownstream() {
+        fast.disposeNow();
+        slow.disposeNow();
+    }
+
+    @Test
+    public void itShouldSendRequestsToFastInstance_whenGatewayReportsLatencies() {
+        // when
+        for (int i = 0; i < REQUESTS; i++) {
+            webTestClient.get()
+                    .uri("/deposits/history?email=client@example.com")
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+
+        // then
+        assertInstanceOf(PeakEwmaLoadBalancer.class, loadBalancerClientFactory.getInstance("deposit-service"));
+        assertEquals(REQUESTS, fastCalls.get() + slowCalls.get());
+        assertTrue(slowCalls.get() <= 2, "slow instance got " + slowCalls.get() + " of " + REQUESTS + " requests");
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.gateway.limit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the gateway with a small route concurrency limit in front of a downstream stub that holds /transfers
+ * for a second.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "gateway.rate-limit.enabled=false",
+        "gateway.concurrency-limit.initial-limit=2",
+        "gateway.concurrency-limit.min-limit=1",
+        "gateway.concurrency-limit.max-limit=2"
+})
+class ConcurrencyLimitFilterTest {
+
+    private static final DisposableServer downstream = HttpServer.create()
+            .port(0)
+            .route(routes -> routes
+                    .get("/transfers/**", (request, response) -> Mono.delay(Duration.ofSeconds(1))
+                            .then(response.sendString(Mono.just("[]")).then())))
+            .bindNow();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void downstreamInstances(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.transfer-service[0].uri",
+                () -> "http://localhost:" + downstream.port());
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "transfer-service");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "lb://transfer-service");
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/transfers/**");
+    }
+
+    @AfterAll
+    static void stopDownstream() {
+        downstream.disposeNow();
+    }
+
+    @Test
+    public void itShouldShedRequests_whenRouteConcurrencyLimitIsReached() {
+        // given
+        WebClient client = WebClient.create("http://localhost:" + port);
+
+        // when
+        List<Integer> statuses = Flux.range(0, 3)
+                .flatMap(i -> client.get()
+                        .uri("/transfers/history?email=transfer" + i + "@example.com")
+                        .exchangeToMono(response -> response.releaseBody().thenReturn(response.rawStatusCode())), 3)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        // then
+        assertEquals(2, statuses.stream().filter(status -> status == 200).count());
+        assertEquals(1, statuses.stream().filter(status -> status == 503).count());
+    }
+}
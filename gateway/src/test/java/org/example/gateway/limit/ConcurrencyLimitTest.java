@@ -0,0 +1,117 @@
+package org.example.gateway.limit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simulates a downstream service with {@link #WORKERS} workers serving a request in {@link #SERVICE_TIME}
+ * and a queue in front of them, offered twice the load it can serve.
+ */
+@Slf4j
+public class ConcurrencyLimitTest {
+
+    private static final int WORKERS = 10;
+    private static final long SERVICE_TIME = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long ARRIVAL_INTERVAL = TimeUnit.MICROSECONDS.toNanos(500);
+    private static final int REQUESTS = 20000;
+
+    @Test
+    public void itShouldShedOverloadAndKeepLatencyLow() {
+        // given
+        ConcurrencyLimit limit = new ConcurrencyLimit(20, 5, 500);
+
+        // when
+        List<Long> unlimited = simulate(null);
+        List<Long> limited = simulate(limit);
+
+        // then
+        long unlimitedP99 = percentile(unlimited, 0.99);
+        long limitedP99 = percentile(limited, 0.99);
+        log.info("Without limit: " + unlimited.size() + " served, p99 " + TimeUnit.NANOSECONDS.toMillis(unlimitedP99)
+                + " ms; with limit " + limit.getLimit() + ": " + limited.size() + " served, "
+                + (REQUESTS - limited.size()) + " shed, p99 " + TimeUnit.NANOSECONDS.toMillis(limitedP99) + " ms");
+        assertTrue(unlimitedP99 > TimeUnit.SECONDS.toNanos(5));
+        assertTrue(limitedP99 < 5 * SERVICE_TIME);
+        // the service is kept busy
+        assertTrue(limited.size() > 0.45 * REQUESTS);
+    }
+
+    @Test
+    public void itShouldRejectRequests_whenLimitIsReached() {
+        // given
+        ConcurrencyLimit limit = new ConcurrencyLimit(2, 1, 10);
+
+        // when
+        boolean first = limit.tryAcquire();
+        boolean second = limit.tryAcquire();
+        boolean third = limit.tryAcquire();
+
+        // then
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        limit.cancel();
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    public void itShouldLowerLimit_whenRequestsAreDropped() {
+        // given
+        ConcurrencyLimit limit = new ConcurrencyLimit(100, 5, 500);
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(SERVICE_TIME, true);
+        }
+
+        // then
+        assertEquals(5, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    /**
+     * @return latencies of served requests
+     */
+    private List<Long> simulate(ConcurrencyLimit limit) {
+        PriorityQueue<Long> workersFreeAt = new PriorityQueue<>();
+        for (int i = 0; i < WORKERS; i++) {
+            workersFreeAt.add(0L);
+        }
+        PriorityQueue<long[]> inFlight = new PriorityQueue<>((a, b) -> Long.compare(a[1], b[1]));
+        List<Long> latencies = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            long now = i * ARRIVAL_INTERVAL;
+            while (!inFlight.isEmpty() && inFlight.peek()[1] <= now) {
+                long[] call = inFlight.poll();
+                if (limit != null) {
+                    limit.release(call[1] - call[0], false);
+                }
+            }
+            if (limit != null && !limit.tryAcquire()) {
+                continue;
+            }
+            long end = Math.max(now, workersFreeAt.poll()) + SERVICE_TIME;
+            workersFreeAt.add(end);
+            inFlight.add(new long[]{now, end});
+            latencies.add(end - now);
+        }
+        return latencies;
+    }
+
+    private static long percentile(List<Long> latencies, double percentile) {
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+}
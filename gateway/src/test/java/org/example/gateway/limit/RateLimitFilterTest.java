@@ -0,0 +1,135 @@
+package org.example.gateway.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class RateLimitFilterTest {
+
+    private final GatewayFilterChain chain = exchange -> Mono.empty();
+
+    private RateLimitFilter underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new RateLimitFilter(1, 3, 100, List.of("10.0.1.1", "10.0.1.2"), new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void itShouldAnswerTooManyRequests_whenClientUsedUpBurst() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            assertNull(filter("10.0.0.1", null).getResponse().getStatusCode());
+        }
+
+        // when
+        MockServerWebExchange limited = filter("10.0.0.1", null);
+
+        // then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getResponse().getStatusCode());
+        assertEquals("1", limited.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNull(filter("10.0.0.2", null).getResponse().getStatusCode());
+    }
+
+    @Test
+    public void itShouldLimitAddress_whenClientRotatesApiKeys() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            assertNull(filter("10.0.0.1", "key-" + i).getResponse().getStatusCode());
+        }
+
+        // when
+        MockServerWebExchange limited = filter("10.0.0.1", "key-3");
+
+        // then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getResponse().getStatusCode());
+    }
+
+    @Test
+    public void itShouldLimitApiKey_whenKeyIsUsedFromManyAddresses() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            assertNull(filter("10.0.0." + i, "shared-key").getResponse().getStatusCode());
+        }
+
+        // when
+        MockServerWebExchange limited = filter("10.0.0.3", "shared-key");
+
+        // then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getResponse().getStatusCode());
+        assertNull(filter("10.0.0.3", null).getResponse().getStatusCode());
+    }
+
+    @Test
+    public void itShouldLimitForwardedClient_whenRequestComesFromTrustedProxy() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            assertNull(filter("10.0.1.1", null, "203.0.113.7").getResponse().getStatusCode());
+        }
+
+        // when
+        MockServerWebExchange limited = filter("10.0.1.2", null, "203.0.113.7, 10.0.1.1");
+
+        // then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getResponse().getStatusCode());
+        assertNull(filter("10.0.1.1", null, "203.0.113.8").getResponse().getStatusCode());
+    }
+
+    @Test
+    public void itShouldIgnoreForwardedFor_whenRequestDoesNotComeFromTrustedProxy() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            assertNull(filter("10.0.0.1", null, "203.0.113." + i).getResponse().getStatusCode());
+        }
+
+        // when
+        MockServerWebExchange limited = filter("10.0.0.1", null, "203.0.113.3");
+
+        // then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getResponse().getStatusCode());
+    }
+
+    @Test
+    public void itShouldNotTrustAddressesSentByClient_whenRequestComesFromTrustedProxy() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            assertNull(filter("10.0.1.1", null, "198.51.100." + i + ", 203.0.113.7").getResponse().getStatusCode());
+        }
+
+        // when
+        MockServerWebExchange limited = filter("10.0.1.1", null, "198.51.100.3, 203.0.113.7");
+
+        // then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getResponse().getStatusCode());
+    }
+
+    private MockServerWebExchange filter(String address, String apiKey) {
+        return filter(address, apiKey, null);
+    }
+
+    private MockServerWebExchange filter(String address, String apiKey, String forwardedFor) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/deposits/history")
+                .remoteAddress(new InetSocketAddress(address, 40000));
+        if (apiKey != null) {
+            request.header(RateLimitFilter.API_KEY_HEADER, apiKey);
+        }
+        if (forwardedFor != null) {
+            request.header(RateLimitFilter.FORWARDED_FOR_HEADER, forwardedFor);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        underTest.filter(exchange, chain).block();
+        return exchange;
+    }
+}
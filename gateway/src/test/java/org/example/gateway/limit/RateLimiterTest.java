@@ -0,0 +1,88 @@
+package org.example.gateway.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+
+    @Test
+    public void itShouldAllowBurst_andThenReplenishRate() {
+        // given
+        RateLimiter rateLimiter = new RateLimiter(10, 3, 100, clock::get);
+
+        // when
+        long first = rateLimiter.tryAcquire("key:a");
+        long second = rateLimiter.tryAcquire("key:a");
+        long third = rateLimiter.tryAcquire("key:a");
+        long fourth = rateLimiter.tryAcquire("key:a");
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        long afterInterval = rateLimiter.tryAcquire("key:a");
+        long afterIntervalAgain = rateLimiter.tryAcquire("key:a");
+
+        // then
+        assertEquals(0, first);
+        assertEquals(0, second);
+        assertEquals(0, third);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), fourth);
+        assertEquals(0, afterInterval);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), afterIntervalAgain);
+    }
+
+    @Test
+    public void itShouldLimitClientsSeparately() {
+        // given
+        RateLimiter rateLimiter = new RateLimiter(1, 1, 100, clock::get);
+        rateLimiter.tryAcquire("address:10.0.0.1");
+
+        // when
+        long sameClient = rateLimiter.tryAcquire("address:10.0.0.1");
+        long otherClient = rateLimiter.tryAcquire("address:10.0.0.2");
+
+        // then
+        assertEquals(TimeUnit.SECONDS.toNanos(1), sameClient);
+        assertEquals(0, otherClient);
+    }
+
+    @Test
+    public void itShouldNotGrantMoreThanBurst_whenCalledConcurrently() throws InterruptedException {
+        // given
+        RateLimiter rateLimiter = new RateLimiter(1, 1000, 100, clock::get);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < 10000; j++) {
+                    if (rateLimiter.tryAcquire("key:a") == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+
+        // when
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // then
+        assertEquals(1000, granted.get());
+    }
+}
@@ -2,7 +2,11 @@ package org.example.notification.config;
 
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -13,6 +17,9 @@ public class RabbitMQConfig {
     public static  final String QUEUE_DEPOSIT = "js.deposit.notify";
     public static  final String TOPIC_EXCHANGE_DEPOSIT = "js.deposit.notify.exchange";
     public static  final String ROUTING_KEY_DEPOSIT = "js.key.deposit";
+    public static  final String MAIL_BATCH_CONTAINER_FACTORY = "mailBatchContainerFactory";
+    public static  final String DEAD_LETTER_EXCHANGE_DEPOSIT = "js.deposit.notify.dlx";
+    public static  final String DEAD_LETTER_QUEUE_DEPOSIT = "js.deposit.notify.dlq";
 
     @Autowired
     private AmqpAdmin amqpAdmin;
@@ -22,15 +29,65 @@ public class RabbitMQConfig {
         return new TopicExchange(TOPIC_EXCHANGE_DEPOSIT);
     }
 
+    /**
+     * Quorum queue counts deliveries of every message, a message returned to the queue more than delivery limit
+     * times and a message rejected without requeue go to the dead letter queue.
+     */
     @Bean
-    public Queue queueDeposit() {
-        return new Queue(QUEUE_DEPOSIT);
+    public Queue queueDeposit(@Value("${notification.mail.delivery-limit:10}") int deliveryLimit) {
+        return QueueBuilder.durable(QUEUE_DEPOSIT)
+                .quorum()
+                .deliveryLimit(deliveryLimit)
+                .deadLetterExchange(DEAD_LETTER_EXCHANGE_DEPOSIT)
+                .build();
     }
 
-    public Binding depositBinding() {
+    @Bean
+    public FanoutExchange depositDeadLetterExchange() {
+        return new FanoutExchange(DEAD_LETTER_EXCHANGE_DEPOSIT);
+    }
+
+    @Bean
+    public Queue depositDeadLetterQueue() {
+        return new Queue(DEAD_LETTER_QUEUE_DEPOSIT);
+    }
+
+    @Bean
+    public Binding depositDeadLetterBinding() {
+        return BindingBuilder
+                .bind(depositDeadLetterQueue())
+                .to(depositDeadLetterExchange());
+    }
+
+    public Binding depositBinding(Queue queueDeposit) {
         return BindingBuilder
-                .bind(queueDeposit())
+                .bind(queueDeposit)
                 .to(depositExchange())
                 .with(ROUTING_KEY_DEPOSIT);
     }
+
+    /**
+     * Listener factory for mail dispatch: every consumer takes a batch of messages and sends it over one SMTP connection,
+     * so number of consumers bounds number of SMTP connections.
+     */
+    @Bean(MAIL_BATCH_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory mailBatchContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${notification.mail.batch-size:50}") int batchSize,
+            @Value("${notification.mail.batch-timeout:1000}") long batchTimeout,
+            @Value("${notification.mail.concurrency:4}") int concurrency
+    ) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(batchTimeout);
+        factory.setPrefetchCount(batchSize * 2);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(concurrency);
+        return factory;
+    }
 }
@@ -1,45 +1,136 @@
 package org.example.notification.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.rabbitmq.client.Channel;
+import lombok.extern.slf4j.Slf4j;
 import org.example.notification.config.RabbitMQConfig;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
 @Service
+@Slf4j
 public class DepositMessageHandler {
 
     private final JavaMailSender javaMailSender;
 
+    private final ObjectReader depositReader;
+
+    private final long retryDelay;
+
     @Autowired
-    public DepositMessageHandler(JavaMailSender javaMailSender) {
+    public DepositMessageHandler(
+            JavaMailSender javaMailSender,
+            ObjectMapper objectMapper,
+            @Value("${notification.mail.retry-delay:5000}") long retryDelay
+    ) {
         this.javaMailSender = javaMailSender;
+        this.depositReader = objectMapper.readerFor(DepositResponseDTO.class);
+        this.retryDelay = retryDelay;
     }
 
-    @RabbitListener(queues = RabbitMQConfig.QUEUE_DEPOSIT)
-    public void receive(Message message) throws JsonProcessingException {
-        System.out.println(message);
-        byte[] body = message.getBody();
-        String jsonBody = new String(body);
-        ObjectMapper objectMapper = new ObjectMapper();
-        DepositResponseDTO depositResponseDTO = objectMapper.readValue(jsonBody, DepositResponseDTO.class);
-        System.out.println(depositResponseDTO);
+    /**
+     * Send mails for a batch of messages over one SMTP connection.
+     * Message is acked only after its mail is sent. When the mail server is not available, messages are returned
+     * to the queue after retry delay, the queue moves a message returned too many times to the dead letter queue.
+     * Mails refused by the mail server, for example for an invalid recipient, are rejected to the dead letter queue
+     * at once.
+     *
+     * @param messages batch of messages from RabbitMQ
+     * @param channel  channel to ack messages
+     */
+    @RabbitListener(queues = RabbitMQConfig.QUEUE_DEPOSIT, containerFactory = RabbitMQConfig.MAIL_BATCH_CONTAINER_FACTORY)
+    public void receive(List<Message> messages, Channel channel) throws IOException {
+        List<Message> parsedMessages = new ArrayList<>(messages.size());
+        List<MimeMessage> mailMessages = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            try {
+                DepositResponseDTO depositResponseDTO = depositReader.readValue(message.getBody());
+                mailMessages.add(createMailMessage(depositResponseDTO));
+                parsedMessages.add(message);
+            } catch (IOException | MessagingException e) {
+                log.error("Unable to parse message " + new String(message.getBody()), e);
+                channel.basicReject(message.getMessageProperties().getDeliveryTag(), false);
+            }
+        }
 
-        SimpleMailMessage mailMessage = new SimpleMailMessage();
-        mailMessage.setTo(depositResponseDTO.getEmail());
-        mailMessage.setFrom("lori@cat.xyz");
+        if (mailMessages.isEmpty())
+            return;
 
-        mailMessage.setSubject("Deposit");
-        mailMessage.setText("Make deposit, sum " + depositResponseDTO.getAmount());
+        try {
+            javaMailSender.send(mailMessages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                requeue(parsedMessages, channel, e);
+                return;
+            }
+            rejectFailed(parsedMessages, mailMessages, e.getFailedMessages().keySet(), channel);
+            return;
+        } catch (MailException e) {
+            requeue(parsedMessages, channel, e);
+            return;
+        }
+        long lastDeliveryTag = parsedMessages.get(parsedMessages.size() - 1).getMessageProperties().getDeliveryTag();
+        channel.basicAck(lastDeliveryTag, true);
+        log.info("Send " + mailMessages.size() + " deposit mails");
+    }
 
+    /**
+     * Ack sent mails and reject mails refused by the mail server. Failed mails are found by identity,
+     * so of equal mails only the refused one is rejected.
+     */
+    private void rejectFailed(List<Message> parsedMessages, List<MimeMessage> mailMessages, Set<Object> failedMailMessages,
+                              Channel channel) throws IOException {
+        int failed = 0;
+        for (int i = 0; i < parsedMessages.size(); i++) {
+            long deliveryTag = parsedMessages.get(i).getMessageProperties().getDeliveryTag();
+            MimeMessage mailMessage = mailMessages.get(i);
+            if (failedMailMessages.stream().anyMatch(failedMailMessage -> failedMailMessage == mailMessage)) {
+                channel.basicReject(deliveryTag, false);
+                failed++;
+            } else {
+                channel.basicAck(deliveryTag, false);
+            }
+        }
+        log.warn("Mail server refused " + failed + " of " + mailMessages.size() + " deposit mails");
+    }
+
+    /**
+     * Return messages to the queue after retry delay, so an unavailable mail server is not called in a loop.
+     */
+    private void requeue(List<Message> parsedMessages, Channel channel, MailException e) throws IOException {
+        log.error("Unable to send " + parsedMessages.size() + " deposit mails, retry in " + retryDelay + " ms", e);
         try {
-            javaMailSender.send(mailMessage);
-        } catch (Exception e) {
-            e.printStackTrace();
+            Thread.sleep(retryDelay);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
         }
+        long lastDeliveryTag = parsedMessages.get(parsedMessages.size() - 1).getMessageProperties().getDeliveryTag();
+        channel.basicNack(lastDeliveryTag, true, true);
+    }
+
+    private MimeMessage createMailMessage(DepositResponseDTO depositResponseDTO) throws MessagingException {
+        MimeMessage mailMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mailMessage);
+        helper.setTo(depositResponseDTO.getEmail());
+        helper.setFrom("lori@cat.xyz");
+
+        helper.setSubject("Deposit");
+        helper.setText("Make deposit, sum " + depositResponseDTO.getAmount());
+        return mailMessage;
     }
 }
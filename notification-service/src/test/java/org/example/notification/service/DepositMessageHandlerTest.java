@@ -0,0 +1,152 @@
+package org.example.notification.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DepositMessageHandlerTest {
+
+    private DepositMessageHandler underTest;
+
+    @Mock
+    private JavaMailSender javaMailSender;
+
+    @Mock
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new DepositMessageHandler(javaMailSender, new ObjectMapper(), 0);
+    }
+
+    @Test
+    void itShouldAckBatch_whenAllMailsAreSent() throws IOException {
+        // given
+        mimeMessages();
+        List<Message> messages = List.of(message(1, "a@gmail.com"), message(2, "b@gmail.com"), message(3, "c@gmail.com"));
+
+        // when
+        underTest.receive(messages, channel);
+
+        // then
+        verify(javaMailSender).send((MimeMessage[]) any());
+        verify(channel).basicAck(3, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void itShouldAckSentMails_andRejectRefusedMail_whenMailServerRefusesRecipient() throws IOException {
+        // given
+        mimeMessages();
+        List<Message> messages = List.of(message(1, "a@gmail.com"), message(2, "b@gmail.com"), message(3, "c@gmail.com"));
+        refuseMailAt(1);
+
+        // when
+        underTest.receive(messages, channel);
+
+        // then
+        verify(channel).basicAck(1, false);
+        verify(channel).basicReject(2, false);
+        verify(channel).basicAck(3, false);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void itShouldRejectOnlyRefusedMail_whenBatchHasEqualMails() throws IOException {
+        // given
+        mimeMessages();
+        List<Message> messages = List.of(message(1, "a@gmail.com"), message(2, "a@gmail.com"));
+        refuseMailAt(1);
+
+        // when
+        underTest.receive(messages, channel);
+
+        // then
+        verify(channel).basicAck(1, false);
+        verify(channel).basicReject(2, false);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void itShouldRequeueBatch_whenMailServerIsNotAvailable() throws IOException {
+        // given
+        mimeMessages();
+        List<Message> messages = List.of(message(1, "a@gmail.com"), message(2, "b@gmail.com"));
+        doThrow(new MailSendException("Mail server connection failed")).when(javaMailSender).send((MimeMessage[]) any());
+
+        // when
+        underTest.receive(messages, channel);
+
+        // then
+        verify(channel).basicNack(2, true, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        verify(channel, never()).basicReject(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void itShouldRejectMessage_whenMessageIsNotDeposit() throws IOException {
+        // given
+        mimeMessages();
+        Message broken = new Message("not a deposit".getBytes(), properties(1));
+        List<Message> messages = List.of(broken, message(2, "b@gmail.com"));
+
+        // when
+        underTest.receive(messages, channel);
+
+        // then
+        verify(channel).basicReject(1, false);
+        verify(channel).basicAck(2, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    /**
+     * Make the mail server refuse the mail at the given index of the sent batch.
+     */
+    private void refuseMailAt(int index) {
+        doAnswer(invocation -> {
+            Object[] mailMessages = invocation.getArguments();
+            throw new MailSendException(Map.of(mailMessages[index], new MessagingException("550 Invalid recipient")));
+        }).when(javaMailSender).send((MimeMessage[]) any());
+    }
+
+    private void mimeMessages() {
+        when(javaMailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+    }
+
+    private static Message message(long deliveryTag, String email) {
+        String body = "{\"amount\":100,\"email\":\"" + email + "\"}";
+        return new Message(body.getBytes(), properties(deliveryTag));
+    }
+
+    private static MessageProperties properties(long deliveryTag) {
+        MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setDeliveryTag(deliveryTag);
+        return messageProperties;
+    }
+}
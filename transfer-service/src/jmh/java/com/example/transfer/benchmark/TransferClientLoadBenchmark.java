@@ -0,0 +1,105 @@
+package com.example.transfer.benchmark;
+
+import feign.Feign;
+import feign.Headers;
+import feign.RequestLine;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Compare how long a burst of concurrent transfers takes with blocking Feign calls on a servlet sized
+ * thread pool and with non-blocking WebClient calls. bill-service is replaced by a local stub with fixed latency.
+ * Run with {@code ./gradlew :transfer-service:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferClientLoadBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final String RESPONSE = "{\"fromBillId\":1,\"toBillId\":3,\"amount\":100}";
+    private static final String REQUEST = "{\"fromAccountId\":1,\"fromBillId\":1,\"toBillId\":3,\"amount\":100}";
+
+    @Param({"1000"})
+    private int concurrentTransfers;
+
+    @Param({"200"})
+    private int billServiceLatencyMs;
+
+    private DisposableServer billServiceStub;
+
+    private ExecutorService servletThreads;
+
+    private BillTransferClient feignClient;
+
+    private WebClient webClient;
+
+    interface BillTransferClient {
+        @RequestLine("POST /bills/transfer")
+        @Headers("Content-Type: application/json")
+        String transfer(String billTransferRequest);
+    }
+
+    @Setup
+    public void setUp() {
+        billServiceStub = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .runOn(LoopResources.create("bill-service-stub"))
+                .route(routes -> routes.post("/bills/transfer", (request, response) -> request.receive()
+                        .then(Mono.delay(Duration.ofMillis(billServiceLatencyMs)))
+                        .then(response.header("Content-Type", "application/json")
+                                .sendString(Mono.just(RESPONSE))
+                                .then())))
+                .bindNow();
+        String url = "http://localhost:" + billServiceStub.port();
+
+        servletThreads = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        feignClient = Feign.builder().target(BillTransferClient.class, url);
+        webClient = WebClient.builder().baseUrl(url).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        servletThreads.shutdownNow();
+        billServiceStub.disposeNow();
+    }
+
+    @Benchmark
+    public int feignOnServletThreads() throws InterruptedException, ExecutionException {
+        List<Future<String>> futures = new ArrayList<>(concurrentTransfers);
+        for (int i = 0; i < concurrentTransfers; i++)
+            futures.add(servletThreads.submit(() -> feignClient.transfer(REQUEST)));
+        int accepted = 0;
+        for (Future<String> future : futures)
+            accepted += future.get().length();
+        return accepted;
+    }
+
+    @Benchmark
+    public long webClientNonBlocking() {
+        return Flux.range(0, concurrentTransfers)
+                .flatMap(i -> webClient.post()
+                        .uri("/bills/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(REQUEST)
+                        .retrieve()
+                        .bodyToMono(String.class), concurrentTransfers)
+                .count()
+                .block();
+    }
+}
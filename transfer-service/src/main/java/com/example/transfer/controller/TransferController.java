@@ -1,31 +1,108 @@
 package com.example.transfer.controller;
 
-import com.example.transfer.controller.dto.TransferMapper;
-import com.example.transfer.controller.dto.TransferRequestDTO;
-import com.example.transfer.controller.dto.TransferResponseDTO;
+import com.example.transfer.controller.dto.*;
+import com.example.transfer.repository.TransferHistoryFilter;
+import com.example.transfer.service.TransferHistoryService;
 import com.example.transfer.service.TransferServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 @RestController()
 public class TransferController {
 
     private final TransferServiceImpl transferService;
     private final TransferMapper mapper;
+    private final TransferHistoryService transferHistoryService;
+    private final ObjectWriter historyWriter;
 
     @Autowired
-    public TransferController(TransferServiceImpl transferService, TransferMapper mapper) {
+    public TransferController(
+            TransferServiceImpl transferService,
+            TransferMapper mapper,
+            TransferHistoryService transferHistoryService,
+            ObjectMapper objectMapper
+    ) {
         this.transferService = transferService;
         this.mapper = mapper;
+        this.transferHistoryService = transferHistoryService;
+        this.historyWriter = objectMapper.writerFor(TransferHistoryDTO.class);
     }
 
     @PostMapping("/transfers")
-    public TransferResponseDTO transfer(@RequestBody @Valid TransferRequestDTO transferRequestDTO) {
+    public Mono<TransferResponseDTO> transfer(@RequestBody @Valid TransferRequestDTO transferRequestDTO) {
         return transferService.transfer(mapper.mapFromRequest(transferRequestDTO));
     }
 
+    /**
+     * Settle a batch of transfers, e.g. end-of-day settlement file. The batch is accepted or rejected as a whole.
+     *
+     * @param transferRequestDTOS transfers
+     * @return accepted transfers in request order
+     */
+    @PostMapping("/transfers/settlement")
+    public List<TransferResponseDTO> settle(@RequestBody List<TransferRequestDTO> transferRequestDTOS) {
+        return transferService.settle(transferRequestDTOS.stream()
+                .map(mapper::mapFromRequest)
+                .toList());
+    }
+
+    /**
+     * Obtain transfer history page by page from new to old.
+     *
+     * @param transferHistoryRequestDTO filter by bill, account and creation date range
+     * @param cursor                    next cursor of the previous page, not set for the first page
+     * @param limit                     page size
+     * @return page with transfers and cursor of the next page
+     */
+    @GetMapping("/transfers/history")
+    public TransferHistoryPageDTO getHistory(
+            TransferHistoryRequestDTO transferHistoryRequestDTO,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit
+    ) {
+        return transferHistoryService.getHistory(toFilter(transferHistoryRequestDTO), cursor, limit);
+    }
+
+    /**
+     * Stream whole transfer history from new to old as newline delimited JSON.
+     *
+     * @param transferHistoryRequestDTO filter by bill, account and creation date range
+     * @return one JSON transfer per line
+     */
+    @GetMapping(value = "/transfers/history/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamHistory(TransferHistoryRequestDTO transferHistoryRequestDTO) {
+        TransferHistoryFilter filter = toFilter(transferHistoryRequestDTO);
+        StreamingResponseBody body = outputStream -> transferHistoryService.streamHistory(filter, transfer -> {
+            try {
+                outputStream.write(historyWriter.writeValueAsBytes(transfer));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private static TransferHistoryFilter toFilter(TransferHistoryRequestDTO transferHistoryRequestDTO) {
+        return TransferHistoryFilter.builder()
+                .billId(transferHistoryRequestDTO.getBillId())
+                .accountId(transferHistoryRequestDTO.getAccountId())
+                .from(transferHistoryRequestDTO.getFrom())
+                .to(transferHistoryRequestDTO.getTo())
+                .build();
+    }
+
 }
@@ -0,0 +1,23 @@
+package com.example.transfer.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransferHistoryDTO {
+    private Long transferId;
+    private BigDecimal amount;
+    private Long fromBillId;
+    private Long fromAccountId;
+    private Long toBillId;
+    private Long toAccountId;
+    private OffsetDateTime creationDate;
+}
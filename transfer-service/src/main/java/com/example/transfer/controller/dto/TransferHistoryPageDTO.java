@@ -0,0 +1,20 @@
+package com.example.transfer.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Page of transfer history, next cursor is null on the last page.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransferHistoryPageDTO {
+    private List<TransferHistoryDTO> transfers;
+    private String nextCursor;
+}
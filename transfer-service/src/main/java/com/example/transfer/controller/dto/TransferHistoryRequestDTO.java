@@ -0,0 +1,25 @@
+package com.example.transfer.controller.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Query parameters of transfer history, all of them are optional.
+ */
+@Getter
+@Setter
+public class TransferHistoryRequestDTO {
+
+    private Long billId;
+
+    private Long accountId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private OffsetDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private OffsetDateTime to;
+}
@@ -1,26 +1,21 @@
 package com.example.transfer.controller.dto;
 
 import com.example.transfer.entity.Transfer;
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Service;
+import org.mapstruct.Builder;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
 
-@Service
-public class TransferMapper {
+/**
+ * Transfer DTO mapping, generated at compile time by MapStruct.
+ */
+@Mapper(componentModel = "spring", builder = @Builder(disableBuilder = true), unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface TransferMapper {
 
-    private final ModelMapper mapper;
+    @Mapping(target = "transferId", ignore = true)
+    @Mapping(target = "creationDate", ignore = true)
+    Transfer mapFromRequest(TransferRequestDTO transferRequestDTO);
 
-    @Autowired
-    public TransferMapper(ModelMapper mapper) {
-        this.mapper = mapper;
-    }
-
-    public Transfer mapFromRequest(TransferRequestDTO transferRequestDTO) {
-        return mapper.map(transferRequestDTO, Transfer.class);
-    }
-
-    public TransferResponseDTO mapToResponse(Transfer transfer) {
-        return mapper.map(transfer, TransferResponseDTO.class);
-    }
+    TransferResponseDTO mapToResponse(Transfer transfer);
 
 }
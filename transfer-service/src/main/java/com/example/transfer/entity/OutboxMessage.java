@@ -0,0 +1,50 @@
+package com.example.transfer.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Message for RabbitMQ that is saved in the same transaction as the transfer and sent later by relay.
+ */
+@Entity(name = "OutboxMessage")
+@Table(name = "outbox_message")
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString(exclude = "payload")
+public class OutboxMessage {
+
+    @Id
+    @SequenceGenerator(name = "outbox_message_sequence", sequenceName = "outbox_message_sequence", allocationSize = 50)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_message_sequence")
+    @Column(name = "id", updatable = false)
+    private Long messageId;
+
+    @Column(name = "exchange", nullable = false)
+    private String exchange;
+
+    @Column(name = "routing_key", nullable = false)
+    private String routingKey;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "BYTEA")
+    private byte[] payload;
+
+    @Column(name = "creation_date", nullable = false)
+    private OffsetDateTime creationDate;
+
+    public OutboxMessage(String exchange, String routingKey, String contentType, byte[] payload, OffsetDateTime creationDate) {
+        this.exchange = exchange;
+        this.routingKey = routingKey;
+        this.contentType = contentType;
+        this.payload = payload;
+        this.creationDate = creationDate;
+    }
+}
@@ -7,7 +7,13 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 @Entity(name = "Transfer")
-@Table(name = "transfer")
+@Table(name = "transfer", indexes = {
+        @Index(name = "transfer_creation_date_id_idx", columnList = "creation_date, id"),
+        @Index(name = "transfer_from_bill_id_creation_date_id_idx", columnList = "from_bill_id, creation_date, id"),
+        @Index(name = "transfer_to_bill_id_creation_date_id_idx", columnList = "to_bill_id, creation_date, id"),
+        @Index(name = "transfer_from_account_id_creation_date_id_idx", columnList = "from_account_id, creation_date, id"),
+        @Index(name = "transfer_to_account_id_creation_date_id_idx", columnList = "to_account_id, creation_date, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,7 +23,7 @@ import java.time.OffsetDateTime;
 public class Transfer {
 
     @Id
-    @SequenceGenerator(name = "transfer_sequence", sequenceName = "transfer_sequence", allocationSize = 1)
+    @SequenceGenerator(name = "transfer_sequence", sequenceName = "transfer_sequence", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfer_sequence")
     @Column(name = "id", updatable = false)
     private Long transferId;
@@ -0,0 +1,21 @@
+package com.example.transfer.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Filter of transfer history, fields that are null are not used. Bill and account match both sides of a transfer.
+ * Date range includes {@code from} and excludes {@code to}.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class TransferHistoryFilter {
+    private Long billId;
+    private Long accountId;
+    private OffsetDateTime from;
+    private OffsetDateTime to;
+}
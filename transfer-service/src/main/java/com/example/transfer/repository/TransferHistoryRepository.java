@@ -0,0 +1,34 @@
+package com.example.transfer.repository;
+
+import com.example.transfer.entity.Transfer;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Transfer history ordered from new to old by creation date and id.
+ */
+public interface TransferHistoryRepository {
+
+    /**
+     * Obtain one page of history with keyset pagination, the page starts after the last transfer of the previous page.
+     *
+     * @param filter     history filter
+     * @param beforeDate creation date of the last transfer of the previous page, null for the first page
+     * @param beforeId   id of the last transfer of the previous page, null for the first page
+     * @param limit      max number of transfers
+     * @return transfers
+     */
+    List<Transfer> findHistory(TransferHistoryFilter filter, OffsetDateTime beforeDate, Long beforeId, int limit);
+
+    /**
+     * Stream whole history, rows are fetched from the database by {@code fetchSize} and are not kept
+     * in the persistence context. Must be called in a transaction and the stream must be closed.
+     *
+     * @param filter    history filter
+     * @param fetchSize number of rows fetched at once
+     * @return transfers
+     */
+    Stream<Transfer> streamHistory(TransferHistoryFilter filter, int fetchSize);
+}
@@ -0,0 +1,77 @@
+package com.example.transfer.repository;
+
+import com.example.transfer.entity.Transfer;
+import org.hibernate.jpa.QueryHints;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Only filters that are set become part of the query. Bill and account filters match either side of a transfer,
+ * the database combines the indexes of both columns.
+ */
+public class TransferHistoryRepositoryImpl implements TransferHistoryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Transfer> findHistory(TransferHistoryFilter filter, OffsetDateTime beforeDate, Long beforeId, int limit) {
+        return createQuery(filter, beforeDate, beforeId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Transfer> streamHistory(TransferHistoryFilter filter, int fetchSize) {
+        return createQuery(filter, null, null)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream()
+                .map(transfer -> {
+                    entityManager.detach(transfer);
+                    return transfer;
+                });
+    }
+
+    private TypedQuery<Transfer> createQuery(TransferHistoryFilter filter, OffsetDateTime beforeDate, Long beforeId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Transfer> query = cb.createQuery(Transfer.class);
+        Root<Transfer> transfer = query.from(Transfer.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getBillId() != null)
+            predicates.add(cb.or(
+                    cb.equal(transfer.get("fromBillId"), filter.getBillId()),
+                    cb.equal(transfer.get("toBillId"), filter.getBillId())
+            ));
+        if (filter.getAccountId() != null)
+            predicates.add(cb.or(
+                    cb.equal(transfer.get("fromAccountId"), filter.getAccountId()),
+                    cb.equal(transfer.get("toAccountId"), filter.getAccountId())
+            ));
+        if (filter.getFrom() != null)
+            predicates.add(cb.greaterThanOrEqualTo(transfer.get("creationDate"), filter.getFrom()));
+        if (filter.getTo() != null)
+            predicates.add(cb.lessThan(transfer.get("creationDate"), filter.getTo()));
+        if (beforeDate != null && beforeId != null)
+            predicates.add(cb.or(
+                    cb.lessThan(transfer.get("creationDate"), beforeDate),
+                    cb.and(cb.equal(transfer.get("creationDate"), beforeDate), cb.lessThan(transfer.get("transferId"), beforeId))
+            ));
+
+        query.select(transfer)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(transfer.get("creationDate")), cb.desc(transfer.get("transferId")));
+        return entityManager.createQuery(query);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.transfer.rest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BillAdjustItemRequestDTO {
+    private Long billId;
+    private BigDecimal delta;
+    private Long accountId;
+}
@@ -0,0 +1,16 @@
+package com.example.transfer.rest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BillAdjustRequestDTO {
+    private BigDecimal delta;
+}
@@ -16,6 +16,18 @@ public interface BillServiceClient {
     @RequestMapping(value = "bills/{billId}", method = RequestMethod.PUT)
     void update(@PathVariable("billId") Long billId, BillRequestDTO billRequestDTO);
 
+    @RequestMapping(value = "bills/adjust/{billId}", method = RequestMethod.PUT)
+    BillResponseDTO adjust(@PathVariable("billId") Long billId, BillAdjustRequestDTO billAdjustRequestDTO);
+
+    @RequestMapping(value = "bills/transfer", method = RequestMethod.POST)
+    BillTransferResponseDTO transfer(BillTransferRequestDTO billTransferRequestDTO);
+
+    @RequestMapping(value = "bills/settle", method = RequestMethod.PUT)
+    List<BillResponseDTO> settle(List<BillAdjustItemRequestDTO> billAdjustItemRequestDTOS);
+
+    @RequestMapping(value = "bills/account/default", method = RequestMethod.POST)
+    List<BillResponseDTO> getDefaultBillsByAccountIds(List<Long> accountIds);
+
     @RequestMapping(value = "bills/account/{accountId}", method = RequestMethod.GET)
     List<BillResponseDTO> getBillsByAccountId(@PathVariable("accountId") Long accountId);
 
@@ -0,0 +1,43 @@
+package com.example.transfer.rest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking client of bill-service. Instances are resolved through Eureka by the load balancer,
+ * no thread is held while the call is in flight.
+ */
+@Component
+public class BillServiceWebClient {
+
+    private final WebClient webClient;
+
+    @Autowired
+    public BillServiceWebClient(
+            WebClient.Builder webClientBuilder,
+            ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction,
+            @Value("${transfer.web-client.response-timeout:5000}") long responseTimeout
+    ) {
+        this.webClient = webClientBuilder
+                .baseUrl("http://bill-service")
+                .filter(loadBalancerFunction)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create().responseTimeout(Duration.ofMillis(responseTimeout))))
+                .build();
+    }
+
+    public Mono<BillTransferResponseDTO> transfer(BillTransferRequestDTO billTransferRequestDTO) {
+        return webClient.post()
+                .uri("/bills/transfer")
+                .bodyValue(billTransferRequestDTO)
+                .retrieve()
+                .bodyToMono(BillTransferResponseDTO.class);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.transfer.rest;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BillTransferRequestDTO {
+    private Long fromAccountId;
+    private Long fromBillId;
+    private Long toAccountId;
+    private Long toBillId;
+    private BigDecimal amount;
+}
@@ -0,0 +1,119 @@
+package com.example.transfer.service;
+
+import com.example.transfer.controller.dto.TransferHistoryDTO;
+import com.example.transfer.controller.dto.TransferHistoryPageDTO;
+import com.example.transfer.entity.Transfer;
+import com.example.transfer.exception.TransferServiceException;
+import com.example.transfer.repository.TransferHistoryFilter;
+import com.example.transfer.repository.TransferRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+public class TransferHistoryService {
+
+    private final TransferRepository transferRepository;
+
+    private final int maxPageSize;
+
+    private final int fetchSize;
+
+    @Autowired
+    public TransferHistoryService(
+            TransferRepository transferRepository,
+            @Value("${transfer.history.max-page-size:500}") int maxPageSize,
+            @Value("${transfer.history.fetch-size:500}") int fetchSize
+    ) {
+        this.transferRepository = transferRepository;
+        this.maxPageSize = maxPageSize;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Obtain one page of transfer history from new to old. Keyset pagination is used, so the cost of a page
+     * does not depend on how far it is from the start.
+     *
+     * @param filter history filter
+     * @param cursor next cursor of the previous page, null for the first page
+     * @param limit  page size
+     * @return page with transfers and cursor of the next page
+     */
+    @Transactional(readOnly = true)
+    public TransferHistoryPageDTO getHistory(TransferHistoryFilter filter, String cursor, int limit) {
+        if (limit < 1 || limit > maxPageSize)
+            throw new TransferServiceException("Limit should be between 1 and " + maxPageSize);
+
+        OffsetDateTime beforeDate = null;
+        Long beforeId = null;
+        if (cursor != null) {
+            String[] keys = decodeCursor(cursor);
+            beforeDate = OffsetDateTime.ofInstant(Instant.ofEpochSecond(Long.parseLong(keys[0]), Long.parseLong(keys[1])), ZoneOffset.UTC);
+            beforeId = Long.parseLong(keys[2]);
+        }
+
+        // one more transfer shows if there is a next page
+        List<Transfer> transfers = transferRepository.findHistory(filter, beforeDate, beforeId, limit + 1);
+        String nextCursor = null;
+        if (transfers.size() > limit) {
+            transfers = transfers.subList(0, limit);
+            nextCursor = encodeCursor(transfers.get(limit - 1));
+        }
+        return new TransferHistoryPageDTO(transfers.stream().map(TransferHistoryService::toDTO).toList(), nextCursor);
+    }
+
+    /**
+     * Pass whole transfer history from new to old to the consumer. Transfers are read by fetch size,
+     * so memory use does not depend on history size.
+     *
+     * @param filter   history filter
+     * @param consumer consumer of transfers
+     */
+    @Transactional(readOnly = true)
+    public void streamHistory(TransferHistoryFilter filter, Consumer<TransferHistoryDTO> consumer) {
+        try (Stream<Transfer> transfers = transferRepository.streamHistory(filter, fetchSize)) {
+            transfers.map(TransferHistoryService::toDTO).forEach(consumer);
+        }
+    }
+
+    private static TransferHistoryDTO toDTO(Transfer transfer) {
+        return new TransferHistoryDTO(
+                transfer.getTransferId(),
+                transfer.getAmount(),
+                transfer.getFromBillId(),
+                transfer.getFromAccountId(),
+                transfer.getToBillId(),
+                transfer.getToAccountId(),
+                transfer.getCreationDate()
+        );
+    }
+
+    private static String encodeCursor(Transfer transfer) {
+        Instant creationDate = transfer.getCreationDate().toInstant();
+        String keys = creationDate.getEpochSecond() + ":" + creationDate.getNano() + ":" + transfer.getTransferId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(keys.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] keys = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (keys.length != 3)
+                throw new TransferServiceException("Cursor " + cursor + " is not valid");
+            for (String key : keys)
+                Long.parseLong(key);
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw new TransferServiceException("Cursor " + cursor + " is not valid");
+        }
+    }
+}
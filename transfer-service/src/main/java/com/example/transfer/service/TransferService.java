@@ -3,9 +3,14 @@ package com.example.transfer.service;
 import com.example.transfer.controller.dto.TransferRequestDTO;
 import com.example.transfer.controller.dto.TransferResponseDTO;
 import com.example.transfer.entity.Transfer;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
 
 public interface TransferService {
 
-    TransferResponseDTO transfer(Transfer transfer);
+    Mono<TransferResponseDTO> transfer(Transfer transfer);
+
+    List<TransferResponseDTO> settle(List<Transfer> transfers);
 
 }
@@ -6,15 +6,22 @@ import com.example.transfer.entity.Transfer;
 import com.example.transfer.exception.TransferServiceException;
 import com.example.transfer.repository.TransferRepository;
 import com.example.transfer.rest.*;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -25,32 +32,35 @@ public class TransferServiceImpl implements TransferService {
 
     private final TransferRepository transferRepository;
 
-    private final AccountServiceClient accountServiceClient;
-
     private final BillServiceClient billServiceClient;
 
-    private final RabbitTemplate rabbitTemplate;
+    private final BillServiceWebClient billServiceWebClient;
+
+    private final OutboxService outboxService;
 
     @Autowired
     public TransferServiceImpl(
             TransferRepository transferRepository,
-            AccountServiceClient accountServiceClient,
             BillServiceClient billServiceClient,
-            RabbitTemplate rabbitTemplate
+            BillServiceWebClient billServiceWebClient,
+            OutboxService outboxService
     ) {
         this.transferRepository = transferRepository;
-        this.accountServiceClient = accountServiceClient;
         this.billServiceClient = billServiceClient;
-        this.rabbitTemplate = rabbitTemplate;
+        this.billServiceWebClient = billServiceWebClient;
+        this.outboxService = outboxService;
     }
 
     /**
-     * Make transfer between two accounts.
+     * Make transfer between two accounts. Both bills are changed by bill-service in one non-blocking call
+     * and one transaction, no thread is held while bill-service works. Transfer is saved with blocking JPA,
+     * so it is moved to the bounded elastic scheduler.
      *
      * @param transfer transfer request info
      * @return transfer response
      */
-    public TransferResponseDTO transfer(Transfer transfer) {
+    @Override
+    public Mono<TransferResponseDTO> transfer(Transfer transfer) {
 
         Long toAccountId = transfer.getToAccountId();
         Long toBillId = transfer.getToBillId();
@@ -58,116 +68,135 @@ public class TransferServiceImpl implements TransferService {
         Long fromBillId = transfer.getFromBillId();
 
         if (toAccountId == null && toBillId == null) {
-            throw new TransferServiceException("Obtain account is null and bill is null");
+            return Mono.error(new TransferServiceException("Obtain account is null and bill is null"));
         }
 
         BigDecimal amount = transfer.getAmount();
 
-        // send request to account and bill service
-        AccountResponseDTO fromAccount = accountServiceClient.getAccountById(fromAccountId);
-        BillResponseDTO fromBill = billServiceClient.getBillById(fromBillId);
-
-        // if bill id is not null than send transfer to that bill
-        if (toBillId != null) {
-            transferMoneyBetweenBills(
-                    toBillId,
-                    amount,
-                    fromBill
-            );
-
-            transferRepository.save(new Transfer(
-                    amount,
-                    fromBillId,
-                    fromAccountId,
-                    toBillId,
-                    toAccountId,
-                    OffsetDateTime.now())
-            );
-            log.info("Accept a transfer to bill with id " + toBillId + " for amount " + amount + " from bill with id " + fromBillId);
-            return createResponse(fromBill.getBillId(), toBillId, amount);
-        }
-
-        // else if bill id is null than send to account default bill
-        BillResponseDTO defaultBill = getDefaultBill(toAccountId);
-        transferMoneyBetweenBills(
-                defaultBill.getBillId(),
-                amount,
-                fromBill
-        );
-
-        transferRepository.save(new Transfer(
-                amount,
-                defaultBill.getBillId(),
-                fromAccountId,
-                toBillId,
-                toAccountId,
-                OffsetDateTime.now())
-        );
-        log.info("Accept a transfer to bill with id " + defaultBill.getBillId() + " for amount " + amount + " from bill with id " + fromBillId);
-        return createResponse(fromBillId, defaultBill.getBillId(), amount);
-    }
-
-    private void transferMoneyBetweenBills(Long toBillId, BigDecimal amount, BillResponseDTO fromBill) {
-        // take money from
-        if (fromBill.getAmount().compareTo(amount) < 0)
-            throw new TransferServiceException("Bill with id " + fromBill.getBillId() + " have not enough money");
-
-        BillRequestDTO fromBillRequestDTO = createBillRequestDTO(amount.negate(), fromBill);
-        billServiceClient.update(fromBill.getBillId(), fromBillRequestDTO);
-
-        // send money to
-        BillResponseDTO toBillResponseDTO = billServiceClient.getBillById(toBillId);
-        BillRequestDTO toBillRequestDTO = createBillRequestDTO(amount, toBillResponseDTO);
-        billServiceClient.update(toBillId, toBillRequestDTO);
+        // send request to bill service, if bill id is null than bill service send to account default bill
+        return billServiceWebClient.transfer(BillTransferRequestDTO.builder()
+                        .fromAccountId(fromAccountId)
+                        .fromBillId(fromBillId)
+                        .toAccountId(toAccountId)
+                        .toBillId(toBillId)
+                        .amount(amount)
+                        .build())
+                .onErrorMap(WebClientResponseException.Conflict.class,
+                        e -> new TransferServiceException("Bill with id " + fromBillId + " have not enough money"))
+                .onErrorMap(WebClientResponseException.BadRequest.class,
+                        e -> new TransferServiceException("Transfer is rejected, bill or account is not found"))
+                .publishOn(Schedulers.boundedElastic())
+                .map(billTransferResponseDTO -> {
+                    Long resolvedToBillId = billTransferResponseDTO.getToBillId();
+                    Transfer acceptedTransfer = new Transfer(
+                            amount,
+                            fromBillId,
+                            fromAccountId,
+                            resolvedToBillId,
+                            toAccountId,
+                            OffsetDateTime.now()
+                    );
+                    log.info("Accept a transfer to bill with id " + resolvedToBillId + " for amount " + amount + " from bill with id " + fromBillId);
+                    return createResponse(acceptedTransfer);
+                });
     }
 
     /**
-     * Create message that send to RabbitMQ.
-     * @param fromBill bill from
-     * @param toBill bill to
-     * @param amount sum of transfer
-     * @return transfer
+     * Settle a batch of transfers. Transfers are netted per bill, so a bill debited and credited several times
+     * gets one net adjustment. All net adjustments are applied by bill-service in one call and one transaction,
+     * all transfers are saved in one batched insert. The batch is accepted or rejected as a whole.
+     * Every transfer is checked before bill-service is called, so no bill is changed for a batch that can not be saved.
+     *
+     * @param transfers transfers to settle
+     * @return transfer responses in request order
      */
-    private TransferResponseDTO createResponse(Long fromBill, Long toBill, BigDecimal amount) {
-        TransferResponseDTO transferResponseDTO = new TransferResponseDTO(fromBill, toBill, amount);
+    @Override
+    public List<TransferResponseDTO> settle(List<Transfer> transfers) {
+        if (transfers.isEmpty())
+            return List.of();
+
+        for (Transfer transfer : transfers) {
+            if (transfer.getFromAccountId() == null || transfer.getFromBillId() == null)
+                throw new TransferServiceException("Sender account is null or bill is null");
+            if (transfer.getToAccountId() == null)
+                throw new TransferServiceException("Obtain account is null");
+            if (transfer.getAmount() == null || transfer.getAmount().signum() <= 0)
+                throw new TransferServiceException("Amount should be positive");
+        }
+
+        Map<Long, Long> defaultBillIds = getDefaultBillIds(transfers);
+
+        // net all transfers per bill and remember expected owner of every debited bill
+        Map<Long, BigDecimal> deltas = new TreeMap<>();
+        Map<Long, Long> billAccounts = new HashMap<>();
+        List<Transfer> acceptedTransfers = new ArrayList<>(transfers.size());
+        OffsetDateTime now = OffsetDateTime.now();
+        for (Transfer transfer : transfers) {
+            Long toBillId = transfer.getToBillId() != null ? transfer.getToBillId() : defaultBillIds.get(transfer.getToAccountId());
+            deltas.merge(transfer.getFromBillId(), transfer.getAmount().negate(), BigDecimal::add);
+            deltas.merge(toBillId, transfer.getAmount(), BigDecimal::add);
+            Long accountId = billAccounts.putIfAbsent(transfer.getFromBillId(), transfer.getFromAccountId());
+            if (accountId != null && !accountId.equals(transfer.getFromAccountId()))
+                throw new TransferServiceException("Bill with id " + transfer.getFromBillId() + " is used by different accounts");
+            acceptedTransfers.add(new Transfer(
+                    transfer.getAmount(),
+                    transfer.getFromBillId(),
+                    transfer.getFromAccountId(),
+                    toBillId,
+                    transfer.getToAccountId(),
+                    now
+            ));
+        }
 
-        ObjectMapper objectMapper = new ObjectMapper();
         try {
-            rabbitTemplate.convertAndSend(TOPIC_EXCHANGE_DEPOSIT, ROUTING_KEY_DEPOSIT, objectMapper.writeValueAsString(transferResponseDTO));
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
-            throw new TransferServiceException("Cant send message to RabbitMQ");
+            billServiceClient.settle(deltas.entrySet()
+                    .stream()
+                    .map(e -> new BillAdjustItemRequestDTO(e.getKey(), e.getValue(), billAccounts.get(e.getKey())))
+                    .toList());
+        } catch (FeignException.Conflict e) {
+            throw new TransferServiceException("Settlement is rejected, bill have not enough money");
+        } catch (FeignException.BadRequest e) {
+            throw new TransferServiceException("Settlement is rejected, bill is not found");
         }
 
-        return transferResponseDTO;
+        List<TransferResponseDTO> transferResponseDTOS = acceptedTransfers.stream()
+                .map(t -> new TransferResponseDTO(t.getFromBillId(), t.getToBillId(), t.getAmount()))
+                .toList();
+        outboxService.saveAllWithMessages(transferRepository, acceptedTransfers, TOPIC_EXCHANGE_DEPOSIT, ROUTING_KEY_DEPOSIT, transferResponseDTOS);
+        log.info("Settle " + transfers.size() + " transfers with " + deltas.size() + " bill adjustments");
+        return transferResponseDTOS;
     }
 
     /**
-     * Create bill request for sending to bill-service and change bill balance.
-     * @param amount sum of transfer
-     * @param billResponseDTO bill balance to change
-     * @return updated bill
+     * Obtain default bills for transfers without bill to in one call.
      */
-    private static BillRequestDTO createBillRequestDTO(BigDecimal amount, BillResponseDTO billResponseDTO) {
-        return BillRequestDTO.builder()
-                .account(billResponseDTO.getAccount())
-                .isDefault(billResponseDTO.isDefault())
-                .creationDate(billResponseDTO.getCreationDate())
-                .overdraftEnabled(billResponseDTO.isOverdraftEnabled())
-                .amount(billResponseDTO.getAmount().add(amount))
-                .build();
+    private Map<Long, Long> getDefaultBillIds(List<Transfer> transfers) {
+        List<Long> accountIds = transfers.stream()
+                .filter(t -> t.getToBillId() == null)
+                .map(Transfer::getToAccountId)
+                .distinct()
+                .toList();
+        if (accountIds.isEmpty())
+            return Map.of();
+
+        Map<Long, Long> defaultBillIds = billServiceClient.getDefaultBillsByAccountIds(accountIds)
+                .stream()
+                .collect(Collectors.toMap(BillResponseDTO::getAccount, BillResponseDTO::getBillId));
+        for (Long accountId : accountIds) {
+            if (!defaultBillIds.containsKey(accountId))
+                throw new TransferServiceException("Unable to find default bill for account with id " + accountId);
+        }
+        return defaultBillIds;
     }
 
     /**
-     * Get default bill for account.
-     * @param accountId account id
-     * @return bill
+     * Save transfer and message for RabbitMQ in one transaction, message is sent by outbox relay.
+     * @param transfer transfer to save
+     * @return transfer
      */
-    private BillResponseDTO getDefaultBill(Long accountId) {
-        return billServiceClient.getBillsByAccountId(accountId)
-                .stream()
-                .filter(BillResponseDTO::isDefault)
-                .findAny()
-                .orElseThrow(() -> new TransferServiceException("Unable to find default bill for account with id " + accountId));
+    private TransferResponseDTO createResponse(Transfer transfer) {
+        TransferResponseDTO transferResponseDTO = new TransferResponseDTO(transfer.getFromBillId(), transfer.getToBillId(), transfer.getAmount());
+        outboxService.saveWithMessage(transferRepository, transfer, TOPIC_EXCHANGE_DEPOSIT, ROUTING_KEY_DEPOSIT, transferResponseDTO);
+        return transferResponseDTO;
     }
 }
@@ -0,0 +1,30 @@
+CREATE SEQUENCE transfer_sequence START 1 INCREMENT 50;
+
+CREATE TABLE transfer
+(
+    id              BIGINT         NOT NULL PRIMARY KEY,
+    from_bill_id    BIGINT         NOT NULL,
+    to_bill_id      BIGINT         NOT NULL,
+    from_account_id BIGINT         NOT NULL,
+    to_account_id   BIGINT         NOT NULL,
+    amount          NUMERIC(19, 2) NOT NULL,
+    creation_date   TIMESTAMP      NOT NULL
+);
+
+CREATE INDEX transfer_creation_date_id_idx ON transfer (creation_date, id);
+CREATE INDEX transfer_from_bill_id_creation_date_id_idx ON transfer (from_bill_id, creation_date, id);
+CREATE INDEX transfer_to_bill_id_creation_date_id_idx ON transfer (to_bill_id, creation_date, id);
+CREATE INDEX transfer_from_account_id_creation_date_id_idx ON transfer (from_account_id, creation_date, id);
+CREATE INDEX transfer_to_account_id_creation_date_id_idx ON transfer (to_account_id, creation_date, id);
+
+CREATE SEQUENCE outbox_message_sequence START 1 INCREMENT 50;
+
+CREATE TABLE outbox_message
+(
+    id            BIGINT       NOT NULL PRIMARY KEY,
+    exchange      VARCHAR(255) NOT NULL,
+    routing_key   VARCHAR(255) NOT NULL,
+    content_type  VARCHAR(255) NOT NULL,
+    payload       BYTEA        NOT NULL,
+    creation_date TIMESTAMP    NOT NULL
+);
@@ -9,6 +9,8 @@ import com.example.transfer.rest.AccountResponseDTO;
 import com.example.transfer.rest.AccountServiceClient;
 import com.example.transfer.rest.BillResponseDTO;
 import com.example.transfer.rest.BillServiceClient;
+import com.example.transfer.rest.BillServiceWebClient;
+import com.example.transfer.rest.BillTransferResponseDTO;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -20,12 +22,15 @@ import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -35,8 +40,11 @@ import java.util.Optional;
 import static com.jayway.jsonpath.internal.path.PathCompiler.fail;
 import static org.assertj.core.api.Assertions.as;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(
@@ -56,6 +64,9 @@ class TransferControllerTest {
     @MockBean
     private BillServiceClient billServiceClient;
 
+    @MockBean
+    private BillServiceWebClient billServiceWebClient;
+
     @MockBean
     private AccountServiceClient accountServiceClient;
 
@@ -85,9 +96,8 @@ class TransferControllerTest {
                 .amount(BigDecimal.valueOf(100))
                 .build();
 
-        when(accountServiceClient.getAccountById(transfer.getFromAccountId())).thenReturn(fromAccount);
-        when(billServiceClient.getBillById(transfer.getFromBillId())).thenReturn(fromBill1);
-        when(billServiceClient.getBillById(transfer.getToBillId())).thenReturn(toBill1);
+        when(billServiceWebClient.transfer(any())).thenReturn(Mono.just(
+                new BillTransferResponseDTO(fromBill1.getBillId(), toBill1.getBillId(), transfer.getAmount())));
 
         // when
         ResultActions perform = mockMvc.perform(post("/transfers")
@@ -96,7 +106,8 @@ class TransferControllerTest {
                 .accept(MediaType.APPLICATION_JSON));
 
         // then
-        MvcResult mvcResult = perform.andExpect(status().isOk()).andReturn();
+        MvcResult asyncResult = perform.andExpect(request().asyncStarted()).andReturn();
+        MvcResult mvcResult = mockMvc.perform(asyncDispatch(asyncResult)).andExpect(status().isOk()).andReturn();
         String body = mvcResult.getResponse().getContentAsString();
         TransferResponseDTO transferResponseDTO = jsonToObject(body);
         Optional<Transfer> expected = transferRepository.findById(1L);
@@ -104,6 +115,32 @@ class TransferControllerTest {
         assertThat(expected.get().getAmount()).isEqualTo(new BigDecimal("100.00"));
     }
 
+    @Test
+    void itShouldNotTransfer_whenBillServiceRejectsRequest() throws Exception {
+        // given
+        Transfer transfer = Transfer.builder()
+                .fromAccountId(1L)
+                .fromBillId(1L)
+                .toAccountId(2L)
+                .toBillId(404L)
+                .amount(BigDecimal.valueOf(100))
+                .build();
+
+        when(billServiceWebClient.transfer(any())).thenReturn(Mono.error(
+                WebClientResponseException.create(HttpStatus.BAD_REQUEST.value(), "Bad Request", null, null, null)));
+
+        // when
+        ResultActions perform = mockMvc.perform(post("/transfers")
+                .content(Objects.requireNonNull(objectToJson(transfer)))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        MvcResult asyncResult = perform.andExpect(request().asyncStarted()).andReturn();
+        MvcResult mvcResult = mockMvc.perform(asyncDispatch(asyncResult)).andExpect(status().isBadRequest()).andReturn();
+        assertThat(mvcResult.getResponse().getContentAsString()).contains("bill or account is not found");
+    }
+
     @Test
     void itShouldNotTransfer_whenRequestIsNotValid() throws Exception {
         // given
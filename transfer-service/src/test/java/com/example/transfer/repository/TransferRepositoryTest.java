@@ -0,0 +1,71 @@
+package com.example.transfer.repository;
+
+import com.example.transfer.entity.Transfer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class TransferRepositoryTest {
+
+    private static final OffsetDateTime DATE = OffsetDateTime.of(2022, 7, 9, 22, 10, 30, 0, ZoneOffset.UTC);
+
+    @Autowired
+    private TransferRepository underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest.saveAll(List.of(
+                new Transfer(BigDecimal.valueOf(100), 1L, 1L, 3L, 2L, DATE),
+                new Transfer(BigDecimal.valueOf(200), 3L, 2L, 1L, 1L, DATE),
+                new Transfer(BigDecimal.valueOf(300), 1L, 1L, 4L, 2L, DATE.plusDays(1)),
+                new Transfer(BigDecimal.valueOf(400), 5L, 3L, 6L, 4L, DATE.plusDays(2))
+        ));
+    }
+
+    @Test
+    void itShouldFindHistoryPage_byBillOnBothSides() {
+        // given
+        TransferHistoryFilter filter = TransferHistoryFilter.builder().billId(1L).build();
+
+        // when
+        List<Transfer> firstPage = underTest.findHistory(filter, null, null, 2);
+        Transfer last = firstPage.get(1);
+        List<Transfer> secondPage = underTest.findHistory(filter, last.getCreationDate(), last.getTransferId(), 2);
+
+        // then
+        assertThat(firstPage).extracting(Transfer::getAmount)
+                .containsExactly(BigDecimal.valueOf(300), BigDecimal.valueOf(200));
+        assertThat(secondPage).extracting(Transfer::getAmount)
+                .containsExactly(BigDecimal.valueOf(100));
+    }
+
+    @Test
+    void itShouldStreamHistory_byAccountAndDateRange() {
+        // given
+        TransferHistoryFilter filter = TransferHistoryFilter.builder()
+                .accountId(2L)
+                .from(DATE)
+                .to(DATE.plusDays(1))
+                .build();
+
+        // when
+        List<Transfer> expected;
+        try (Stream<Transfer> stream = underTest.streamHistory(filter, 1)) {
+            expected = stream.toList();
+        }
+
+        // then
+        assertThat(expected).extracting(Transfer::getAmount)
+                .containsExactly(BigDecimal.valueOf(200), BigDecimal.valueOf(100));
+    }
+}
@@ -3,24 +3,36 @@ package com.example.transfer.service;
 import com.example.transfer.controller.dto.TransferRequestDTO;
 import com.example.transfer.controller.dto.TransferResponseDTO;
 import com.example.transfer.entity.Transfer;
+import com.example.transfer.exception.TransferServiceException;
 import com.example.transfer.repository.TransferRepository;
-import com.example.transfer.rest.AccountResponseDTO;
-import com.example.transfer.rest.AccountServiceClient;
+import com.example.transfer.rest.BillAdjustItemRequestDTO;
 import com.example.transfer.rest.BillResponseDTO;
 import com.example.transfer.rest.BillServiceClient;
+import com.example.transfer.rest.BillServiceWebClient;
+import com.example.transfer.rest.BillTransferRequestDTO;
+import com.example.transfer.rest.BillTransferResponseDTO;
+import feign.FeignException;
+import feign.Request;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 
@@ -34,13 +46,13 @@ class TransferServiceTest {
     private TransferRepository transferRepository;
 
     @Mock
-    private AccountServiceClient accountServiceClient;
+    private BillServiceClient billServiceClient;
 
     @Mock
-    private BillServiceClient billServiceClient;
+    private BillServiceWebClient billServiceWebClient;
 
     @Mock
-    private RabbitTemplate rabbitTemplate;
+    private OutboxService outboxService;
 
     @Test
     void itShouldCreateTransferWithToBill() {
@@ -54,23 +66,18 @@ class TransferServiceTest {
                 .amount(new BigDecimal(50))
                 .build();
 
-        AccountResponseDTO fromAccount = getAccountResponseDTO(1L, "dmitry", "dmitry@gmail.com", "+79520009939", List.of(1L, 2L));
-        BillResponseDTO fromBill1 = getBuild(1L, 1L, 100, true, true);
-        BillResponseDTO fromBill2 = getBuild(2L, 1L, 1000, false, false);
-
-        AccountResponseDTO toAccount = getAccountResponseDTO(2L, "dmitry1", "dmitry1@gmail.com", "+79520009938", List.of(3L));
-        BillResponseDTO toBill = getBuild(3L, 2L, 2000, true, false);
-
-        when(accountServiceClient.getAccountById(transfer.getFromAccountId())).thenReturn(fromAccount);
-        when(billServiceClient.getBillById(transfer.getFromBillId())).thenReturn(fromBill1);
-        when(billServiceClient.getBillById(transfer.getToBillId())).thenReturn(toBill);
+        when(billServiceWebClient.transfer(any())).thenReturn(Mono.just(new BillTransferResponseDTO(1L, 3L, new BigDecimal(50))));
 
         // when
-        TransferResponseDTO expected = transferService.transfer(transfer);
+        TransferResponseDTO expected = transferService.transfer(transfer).block();
 
         // then
-        verify(billServiceClient, times(2)).update(anyLong(), any());
-        verify(transferRepository, times(1)).save(any());
+        ArgumentCaptor<BillTransferRequestDTO> captor = ArgumentCaptor.forClass(BillTransferRequestDTO.class);
+        verify(billServiceWebClient, times(1)).transfer(captor.capture());
+        verify(outboxService, times(1)).saveWithMessage(eq(transferRepository), any(), anyString(), anyString(), any());
+        assertThat(captor.getValue().getFromBillId()).isEqualTo(transfer.getFromBillId());
+        assertThat(captor.getValue().getToBillId()).isEqualTo(transfer.getToBillId());
+        assertThat(expected.getToBillId()).isEqualTo(3L);
         assertThat(expected.getAmount()).isEqualTo(BigDecimal.valueOf(50));
     }
 
@@ -86,47 +93,117 @@ class TransferServiceTest {
                 .amount(new BigDecimal(50))
                 .build();
 
-        AccountResponseDTO fromAccount = getAccountResponseDTO(1L, "dmitry", "dmitry@gmail.com", "+79520009939", List.of(1L, 2L));
-        BillResponseDTO fromBill1 = getBuild(1L, 1L, 100, true, true);
-        BillResponseDTO fromBill2 = getBuild(2L, 1L, 1000, false, false);
-
-        AccountResponseDTO toAccount = getAccountResponseDTO(2L, "dmitry1", "dmitry1@gmail.com", "+79520009938", List.of(3L));
-        BillResponseDTO toBill = getBuild(3L, 2L, 2000, true, false);
-        List<BillResponseDTO> bills = new ArrayList<>();
-        bills.add(toBill);
-
-        when(accountServiceClient.getAccountById(transfer.getFromAccountId())).thenReturn(fromAccount);
-        when(billServiceClient.getBillById(transfer.getFromBillId())).thenReturn(fromBill1);
-        when(billServiceClient.getBillsByAccountId(transfer.getToAccountId())).thenReturn(bills);
-        when(billServiceClient.getBillById(toBill.getBillId())).thenReturn(toBill);
+        // bill-service resolves default bill 3 of account 2
+        when(billServiceWebClient.transfer(any())).thenReturn(Mono.just(new BillTransferResponseDTO(1L, 3L, new BigDecimal(50))));
 
         // when
-        TransferResponseDTO expected = transferService.transfer(transfer);
+        TransferResponseDTO expected = transferService.transfer(transfer).block();
 
         // then
-        verify(billServiceClient, times(2)).update(anyLong(), any());
-        verify(transferRepository, times(1)).save(any());
+        ArgumentCaptor<Transfer> captor = ArgumentCaptor.forClass(Transfer.class);
+        verify(billServiceWebClient, times(1)).transfer(any());
+        verify(outboxService, times(1)).saveWithMessage(eq(transferRepository), captor.capture(), anyString(), anyString(), any());
+        assertThat(captor.getValue().getToBillId()).isEqualTo(3L);
+        assertThat(expected.getToBillId()).isEqualTo(3L);
         assertThat(expected.getAmount()).isEqualTo(BigDecimal.valueOf(50));
     }
 
-    private static BillResponseDTO getBuild(long billId, long billId1, int val, boolean isDefault, boolean isDefault1) {
-        return BillResponseDTO.builder()
-                .billId(billId)
-                .amount(new BigDecimal(val))
-                .isDefault(isDefault)
-                .overdraftEnabled(isDefault1)
-                .account(billId1)
+    @Test
+    void itShouldNotCreateTransfer_whenBillHasNotEnoughMoney() {
+        // given
+        Transfer transfer = Transfer.builder()
+                .transferId(1L)
+                .toBillId(3L)
+                .toAccountId(null)
+                .fromBillId(1L)
+                .fromAccountId(1L)
+                .amount(new BigDecimal(500))
                 .build();
+
+        when(billServiceWebClient.transfer(any()))
+                .thenReturn(Mono.error(WebClientResponseException.create(409, "Conflict", null, null, null)));
+
+        // when
+        // then
+        assertThatThrownBy(() -> transferService.transfer(transfer).block())
+                .isInstanceOf(TransferServiceException.class)
+                .hasMessageContaining("Bill with id " + transfer.getFromBillId() + " have not enough money");
+        verify(outboxService, times(0)).saveWithMessage(any(), any(), anyString(), anyString(), any());
     }
 
-    private static AccountResponseDTO getAccountResponseDTO(long accountId, String dmitry, String email, String phone, List<Long> bills) {
-        AccountResponseDTO fromAccount = AccountResponseDTO.builder()
-                .accountId(accountId)
-                .name(dmitry)
-                .email(email)
-                .phone(phone)
-                .bills(bills)
-                .build();
-        return fromAccount;
+    @Test
+    @SuppressWarnings("unchecked")
+    void itShouldSettleTransfers_withNetAdjustmentPerBill() {
+        // given
+        List<Transfer> transfers = List.of(
+                Transfer.builder().fromAccountId(1L).fromBillId(1L).toAccountId(2L).toBillId(2L).amount(new BigDecimal(100)).build(),
+                Transfer.builder().fromAccountId(2L).fromBillId(2L).toAccountId(1L).toBillId(1L).amount(new BigDecimal(30)).build(),
+                Transfer.builder().fromAccountId(1L).fromBillId(1L).toAccountId(3L).amount(new BigDecimal(20)).build()
+        );
+        when(billServiceClient.getDefaultBillsByAccountIds(List.of(3L)))
+                .thenReturn(List.of(BillResponseDTO.builder().billId(5L).account(3L).build()));
+
+        // when
+        List<TransferResponseDTO> expected = transferService.settle(transfers);
+
+        // then
+        ArgumentCaptor<List<BillAdjustItemRequestDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(billServiceClient, times(1)).settle(captor.capture());
+        assertThat(captor.getValue()).extracting(BillAdjustItemRequestDTO::getBillId).containsExactly(1L, 2L, 5L);
+        assertThat(captor.getValue()).extracting(BillAdjustItemRequestDTO::getDelta)
+                .containsExactly(new BigDecimal(-90), new BigDecimal(70), new BigDecimal(20));
+        assertThat(captor.getValue()).extracting(BillAdjustItemRequestDTO::getAccountId).containsExactly(1L, 2L, null);
+        verify(outboxService, times(1)).saveAllWithMessages(eq(transferRepository), anyList(), anyString(), anyString(), anyList());
+        assertThat(expected).extracting(TransferResponseDTO::getToBillId).containsExactly(2L, 1L, 5L);
+    }
+
+    @Test
+    void itShouldNotSettleTransfers_whenBillHasNotEnoughMoney() {
+        // given
+        List<Transfer> transfers = List.of(
+                Transfer.builder().fromAccountId(1L).fromBillId(1L).toAccountId(2L).toBillId(2L).amount(new BigDecimal(500)).build()
+        );
+        Request request = Request.create(Request.HttpMethod.PUT, "bills/settle", Map.of(), null, StandardCharsets.UTF_8, null);
+        when(billServiceClient.settle(anyList())).thenThrow(new FeignException.Conflict("conflict", request, null, null));
+
+        // when
+        // then
+        assertThatThrownBy(() -> transferService.settle(transfers))
+                .isInstanceOf(TransferServiceException.class)
+                .hasMessageContaining("Settlement is rejected, bill have not enough money");
+        verify(outboxService, never()).saveAllWithMessages(any(), anyList(), anyString(), anyString(), anyList());
+    }
+
+    @Test
+    void itShouldNotSettleTransfers_whenObtainAccountIsNullAndBillIsSet() {
+        // given
+        List<Transfer> transfers = List.of(
+                Transfer.builder().fromAccountId(1L).fromBillId(1L).toAccountId(2L).toBillId(2L).amount(new BigDecimal(50)).build(),
+                Transfer.builder().fromAccountId(1L).fromBillId(1L).toBillId(2L).amount(new BigDecimal(50)).build()
+        );
+
+        // when
+        // then
+        assertThatThrownBy(() -> transferService.settle(transfers))
+                .isInstanceOf(TransferServiceException.class)
+                .hasMessageContaining("Obtain account is null");
+        verify(billServiceClient, never()).settle(anyList());
+        verify(outboxService, never()).saveAllWithMessages(any(), anyList(), anyString(), anyString(), anyList());
+    }
+
+    @Test
+    void itShouldNotSettleTransfers_whenAccountHasNoDefaultBill() {
+        // given
+        List<Transfer> transfers = List.of(
+                Transfer.builder().fromAccountId(1L).fromBillId(1L).toAccountId(3L).amount(new BigDecimal(50)).build()
+        );
+        when(billServiceClient.getDefaultBillsByAccountIds(List.of(3L))).thenReturn(List.of());
+
+        // when
+        // then
+        assertThatThrownBy(() -> transferService.settle(transfers))
+                .isInstanceOf(TransferServiceException.class)
+                .hasMessageContaining("Unable to find default bill for account with id 3");
+        verify(billServiceClient, never()).settle(anyList());
     }
-}
\ No newline at end of file
+}